@@ -2,7 +2,9 @@ package com.StudentLibrary.Studentlibrary.Controllers;
 
 import com.StudentLibrary.Studentlibrary.Model.Student;
 import com.StudentLibrary.Studentlibrary.Model.User;
+import com.StudentLibrary.Studentlibrary.Services.CatalogReplica;
 import com.StudentLibrary.Studentlibrary.Services.StudentService;
+import com.StudentLibrary.Studentlibrary.Services.TransactionPartitionManager;
 import com.StudentLibrary.Studentlibrary.Services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,6 +27,12 @@ public class AdminController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private TransactionPartitionManager partitionManager;
+
+    @Autowired
+    private CatalogReplica catalogReplica;
+
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
         return ResponseEntity.ok(userService.findAll());
@@ -121,4 +129,32 @@ public class AdminController {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to delete student: " + e.getMessage()));
         }
     }
+
+    // One-off conversion of the transaction table to monthly partitions; rerunnable if it times out
+    @PostMapping("/transactions/partitioning/migrate")
+    public ResponseEntity<?> migrateTransactionPartitions() {
+        try {
+            return ResponseEntity.ok(Map.of("message", partitionManager.migrate()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Admin: Transaction partitioning migration failed: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Migration failed: " + e.getMessage()));
+        }
+    }
+
+    // Scans the whole book table; with repair=true the replica takes the database values
+    @PostMapping("/catalog/replica-check")
+    public ResponseEntity<?> checkCatalogReplica(@RequestParam(value = "repair", defaultValue = "false") boolean repair) {
+        try {
+            return ResponseEntity.ok(catalogReplica.checkConsistency(repair));
+        } catch (Exception e) {
+            System.err.println("Admin: Error checking catalog replica: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to check catalog replica: " + e.getMessage()));
+        }
+    }
 }
@@ -1,12 +1,13 @@
 package com.StudentLibrary.Studentlibrary.Controllers;
 
-import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,13 +20,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.StudentLibrary.Studentlibrary.Model.Author;
 import com.StudentLibrary.Studentlibrary.Model.Book;
 import com.StudentLibrary.Studentlibrary.Model.Genre;
 import com.StudentLibrary.Studentlibrary.Services.AuthorService;
+import com.StudentLibrary.Studentlibrary.Services.BookFacetService;
+import com.StudentLibrary.Studentlibrary.Services.BookSearchService;
 import com.StudentLibrary.Studentlibrary.Services.BookService;
+import com.StudentLibrary.Studentlibrary.Services.BookSuggestService;
+import com.StudentLibrary.Studentlibrary.dto.BookSearchPage;
+import com.StudentLibrary.Studentlibrary.dto.BookSummaryPage;
 
 @RestController
 @RequestMapping("/api/books")
@@ -36,6 +43,18 @@ public class BookController {
     
     @Autowired
     private AuthorService authorService;
+    
+    @Autowired
+    private BookSearchService bookSearchService;
+    
+    @Autowired
+    private BookSuggestService bookSuggestService;
+    
+    @Autowired
+    private BookFacetService bookFacetService;
+    
+    @Value("${books.covers.versioned_max_age_seconds}")
+    private long versionedMaxAgeSeconds;
 
     @PostMapping("/create")
     public ResponseEntity<String> createBook(@RequestBody Book book) {
@@ -115,14 +134,8 @@ public class BookController {
             book.setAuthor(author);
             book.setAvailable(true);
             
-            // Save image if provided
-            if (image != null && !image.isEmpty()) {
-                book.setCoverImage(image.getBytes());
-                System.out.println("Image data set on book entity, size: " + image.getSize() + " bytes");
-            }
-            
-            // Save the book
-            book = bookService.createBook(book);
+            // Save the book, storing the image if provided
+            book = bookService.createBookWithImage(book, image);
             System.out.println("Book created with ID: " + book.getId() + ", has image: " + book.hasImage());
             
             Map<String, Object> response = new HashMap<>();
@@ -158,18 +171,8 @@ public class BookController {
                 return ResponseEntity.badRequest().body(Map.of("message", "No image provided"));
             }
             
-            // Get the book
-            Book book = bookService.getBookById(bookId);
-            if (book == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            // Set the image data directly on the book entity
-            book.setCoverImage(image.getBytes());
-            System.out.println("Image data set on book entity, size: " + image.getSize() + " bytes");
-            
-            // Save the book with the image
-            Book updatedBook = bookService.createBook(book);
+            // Store the image and point the book at it
+            Book updatedBook = bookService.updateBookImage(bookId, image);
             System.out.println("Book updated with image: " + updatedBook.getId() + ", has image: " + updatedBook.hasImage());
             
             Map<String, Object> response = new HashMap<>();
@@ -187,14 +190,66 @@ public class BookController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> getBooks(
+    public ResponseEntity<?> getBooks(
             @RequestParam(value = "genre", required = false) String genre,
             @RequestParam(value = "available", required = false, defaultValue = "false") boolean available,
-            @RequestParam(value = "author", required = false) String author) {
+            @RequestParam(value = "author", required = false) String author,
+            @RequestParam(value = "view", required = false) String view) {
+        // view=summary returns the listing columns only, without loading entities
+        if ("summary".equals(view)) {
+            return new ResponseEntity<>(bookService.getBookSummaries(genre, available, author), HttpStatus.OK);
+        }
         List<Book> bookList = bookService.getBooks(genre, available, author);
         return new ResponseEntity<>(bookList, HttpStatus.OK);
     }
     
+    @GetMapping("/public/search")
+    public ResponseEntity<?> searchBooks(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "0") int size) {
+        try {
+            BookSearchPage result = bookSearchService.search(query, page, size);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            System.err.println("Controller: Error searching books: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to search books: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/public/facets")
+    public ResponseEntity<?> facetBooks(
+            @RequestParam(value = "genre", required = false) Genre genre,
+            @RequestParam(value = "authorId", required = false) Integer authorId,
+            @RequestParam(value = "available", required = false) Boolean available,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "0") int size) {
+        try {
+            return ResponseEntity.ok(bookFacetService.facets(genre, authorId, available, page, size));
+        } catch (Exception e) {
+            System.err.println("Controller: Error faceting books: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to facet books: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/public/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", required = false, defaultValue = "0") int limit) {
+        try {
+            return ResponseEntity.ok(bookSuggestService.suggest(prefix, limit));
+        } catch (Exception e) {
+            System.err.println("Controller: Error suggesting books: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to suggest books: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/public/all")
     public ResponseEntity<?> getAllBooks() {
         try {
@@ -220,6 +275,23 @@ public class BookController {
         }
     }
     
+    @GetMapping("/public/catalog")
+    public ResponseEntity<?> getCatalog(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "0") int size) {
+        try {
+            BookSummaryPage page = bookService.getCatalogPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Controller: Error fetching catalog page: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to fetch catalog: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/public/findById")
     public ResponseEntity<Book> getBookById(@RequestParam int id) {
         try {
@@ -232,7 +304,11 @@ public class BookController {
     }
     
     @GetMapping("/public/image")
-    public ResponseEntity<?> getBookImage(@RequestParam int id) {
+    public ResponseEntity<?> getBookImage(
+            @RequestParam int id,
+            @RequestParam(value = "size", required = false, defaultValue = "0") int size,
+            @RequestParam(value = "v", required = false) String version,
+            ServletWebRequest webRequest) {
         try {
             System.out.println("Getting image for book ID: " + id);
             Book book = bookService.getBookById(id);
@@ -242,12 +318,20 @@ public class BookController {
                 return ResponseEntity.notFound().build();
             }
             
-            byte[] imageData = book.getCoverImage();
-            if (imageData != null && imageData.length > 0) {
-                System.out.println("Image found for book: " + book.getName() + ", size: " + imageData.length + " bytes");
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_JPEG)
-                        .body(imageData);
+            Path imageFile = bookService.getBookImage(book, size);
+            if (imageFile != null) {
+                // File names are the content hash (plus a thumbnail suffix), so they make strong ETags
+                String fileName = imageFile.getFileName().toString();
+                // Thumbnails are always JPEG; originals keep their own type
+                boolean original = fileName.equals(book.getCoverHash());
+                MediaType contentType = original && book.getCoverContentType() != null
+                        ? MediaType.parseMediaType(book.getCoverContentType()) : MediaType.IMAGE_JPEG;
+                // A URL carrying the cover's version never changes content; the plain one is revalidated
+                boolean versioned = version != null && version.equals(book.getImageVersion());
+                String cacheControl = versioned
+                        ? "public, max-age=" + versionedMaxAgeSeconds + ", immutable"
+                        : "public, no-cache";
+                return FileResponder.serve(imageFile, contentType, fileName, cacheControl, webRequest);
             } else {
                 System.out.println("No image found for book: " + book.getName());
                 return ResponseEntity.notFound().build();
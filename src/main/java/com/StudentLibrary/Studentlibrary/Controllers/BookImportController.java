@@ -0,0 +1,75 @@
+package com.StudentLibrary.Studentlibrary.Controllers;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.StudentLibrary.Studentlibrary.Services.BookImportService;
+import com.StudentLibrary.Studentlibrary.dto.ImportReport;
+
+/**
+ * Bulk catalog import. The request body is the raw CSV or MARC text file (not multipart),
+ * read as it arrives; the response is the final report. Imports in progress and recent
+ * ones can be polled while a long import runs.
+ */
+@RestController
+@RequestMapping("/admin/books/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class BookImportController {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @PostMapping
+    public ResponseEntity<?> importBooks(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            HttpServletRequest request) {
+        BookImportService.Format importFormat;
+        try {
+            importFormat = BookImportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Unsupported format: " + format));
+        }
+        try (InputStream in = request.getInputStream()) {
+            ImportReport report = bookImportService.importBooks(importFormat, in);
+            HttpStatus status = report.getStatus() == ImportReport.Status.COMPLETED
+                ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+            return ResponseEntity.status(status).body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Controller: Error importing books: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to import books: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportReport>> getImports() {
+        return ResponseEntity.ok(bookImportService.getReports());
+    }
+
+    @GetMapping("/{importId}")
+    public ResponseEntity<?> getImport(@PathVariable String importId) {
+        ImportReport report = bookImportService.getReport(importId);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
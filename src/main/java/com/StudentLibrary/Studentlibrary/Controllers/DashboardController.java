@@ -16,6 +16,8 @@ import com.StudentLibrary.Studentlibrary.Model.Book;
 import com.StudentLibrary.Studentlibrary.Model.Transaction;
 import com.StudentLibrary.Studentlibrary.Services.AuthorService;
 import com.StudentLibrary.Studentlibrary.Services.BookService;
+import com.StudentLibrary.Studentlibrary.Services.CatalogCache;
+import com.StudentLibrary.Studentlibrary.Services.CatalogReplica;
 import com.StudentLibrary.Studentlibrary.Services.StudentService;
 import com.StudentLibrary.Studentlibrary.Services.TransactionService;
 
@@ -35,6 +37,12 @@ public class DashboardController {
     @Autowired
     private TransactionService transactionService;
     
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private CatalogReplica catalogReplica;
+    
     @GetMapping("/stats")
     public ResponseEntity<?> getDashboardStats() {
         try {
@@ -50,6 +58,7 @@ public class DashboardController {
             double borrowedBooksPercentage = bookService.getBorrowedBooksPercentage();
             double studentEngagementPercentage = studentService.getStudentEngagementPercentage();
             double onTimeReturnsPercentage = transactionService.getOnTimeReturnsPercentage();
+            double onTimeReturnsPercentage30d = transactionService.getOnTimeReturnsPercentage(30);
             
             // Build response
             stats.put("totalBooks", totalBooks);
@@ -60,6 +69,7 @@ public class DashboardController {
             stats.put("borrowedBooksPercentage", borrowedBooksPercentage);
             stats.put("studentEngagementPercentage", studentEngagementPercentage);
             stats.put("onTimeReturnsPercentage", onTimeReturnsPercentage);
+            stats.put("onTimeReturnsPercentage30d", onTimeReturnsPercentage30d);
             
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -92,4 +102,14 @@ public class DashboardController {
                     .body(Map.of("message", "Failed to fetch popular books: " + e.getMessage()));
         }
     }
+    
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(catalogCache.getStats());
+    }
+    
+    @GetMapping("/replica-stats")
+    public ResponseEntity<?> getReplicaStats() {
+        return ResponseEntity.ok(catalogReplica.getStats());
+    }
 }
@@ -0,0 +1,132 @@
+package com.StudentLibrary.Studentlibrary.Controllers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Serves an immutable file with HTTP caching and byte ranges: a strong ETag and
+ * Last-Modified, 304 for matching If-None-Match / If-Modified-Since, and 206 for a single
+ * satisfiable Range (honouring If-Range). Validation only stats the file. On Tomcat the
+ * body is handed to the connector's sendfile(); elsewhere it is streamed.
+ */
+final class FileResponder {
+
+    // Tomcat's sendfile request attributes (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileResponder() {
+    }
+
+    /**
+     * Returns the response for {@code file}, or null when a 304 has already been written to
+     * the servlet response. {@code etag} is the unquoted strong validator.
+     */
+    static ResponseEntity<?> serve(Path file, MediaType contentType, String etag, String cacheControl,
+            ServletWebRequest webRequest) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        // Sets ETag and Last-Modified on the response, and the 304 status when they match
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return null;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && "GET".equals(request.getMethod())
+                && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges are allowed to be answered with the whole file
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                long rangeStart;
+                long rangeEnd;
+                try {
+                    rangeStart = range.getRangeStart(length);
+                    rangeEnd = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    rangeStart = length;
+                    rangeEnd = length;
+                }
+                if (rangeStart >= length || rangeStart > rangeEnd) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                            .build();
+                }
+                start = rangeStart;
+                end = rangeEnd;
+                status = HttpStatus.PARTIAL_CONTENT;
+            }
+        }
+
+        long count = end - start + 1;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+                .contentType(contentType)
+                .contentLength(count)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        if (!"GET".equals(request.getMethod())) {
+            return builder.build();
+        }
+        // Let Tomcat sendfile() the bytes straight from the page cache after we return
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return builder.build();
+        }
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            return builder.body(new ResourceRegion(new FileSystemResource(file), start, count));
+        }
+        // Not a FileSystemResource: Spring would apply a Range header we chose to ignore
+        return builder.body(new InputStreamResource(Files.newInputStream(file)));
+    }
+
+    // If-Range holds either an ETag or an HTTP date; a range applies only if it still matches
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals("\"" + etag + "\"");
+        }
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_RANGE, ifRange);
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
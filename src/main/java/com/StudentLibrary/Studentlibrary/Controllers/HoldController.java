@@ -0,0 +1,67 @@
+package com.StudentLibrary.Studentlibrary.Controllers;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.StudentLibrary.Studentlibrary.Services.HoldService;
+import com.StudentLibrary.Studentlibrary.dto.HoldPosition;
+
+@RestController
+public class HoldController {
+
+    @Autowired
+    HoldService holdService;
+
+    @PostMapping("/hold/place")
+    public ResponseEntity<?> placeHold(@RequestParam("studentId") int studentId,
+                                       @RequestParam("bookId") int bookId) {
+        try {
+            HoldPosition position = holdService.placeHold(studentId, bookId);
+            return ResponseEntity.ok(position);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/hold/cancel")
+    public ResponseEntity<?> cancelHold(@RequestParam("studentId") int studentId,
+                                        @RequestParam("bookId") int bookId) {
+        try {
+            holdService.cancelHold(studentId, bookId);
+            return ResponseEntity.ok(Map.of("message", "Hold cancelled successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/hold/position")
+    public ResponseEntity<?> getPosition(@RequestParam("studentId") int studentId,
+                                         @RequestParam("bookId") int bookId) {
+        try {
+            return ResponseEntity.ok(holdService.getPosition(studentId, bookId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/hold/student")
+    public ResponseEntity<List<HoldPosition>> getStudentHolds(@RequestParam("studentId") int studentId) {
+        try {
+            return ResponseEntity.ok(holdService.getStudentHolds(studentId));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
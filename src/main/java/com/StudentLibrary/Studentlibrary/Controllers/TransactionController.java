@@ -1,31 +1,54 @@
 package com.StudentLibrary.Studentlibrary.Controllers;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.StudentLibrary.Studentlibrary.Model.Transaction;
+import com.StudentLibrary.Studentlibrary.Services.TransactionExportService;
 import com.StudentLibrary.Studentlibrary.Services.TransactionService;
+import com.StudentLibrary.Studentlibrary.dto.CirculationRequest;
+import com.StudentLibrary.Studentlibrary.dto.CirculationResult;
+import com.StudentLibrary.Studentlibrary.dto.TransactionPage;
 
 @RestController
 public class TransactionController {
 
     @Autowired
     TransactionService transactionService;
+    
+    @Autowired
+    TransactionExportService transactionExportService;
+    
+    @Value("${books.batch.max_items}")
+    private int maxBatchItems;
 
     @GetMapping("/transaction/all")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
+    public ResponseEntity<?> getAllTransactions(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "0") int size) {
         try {
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            return ResponseEntity.ok(transactions);
+            TransactionPage page = transactionService.getAllTransactions(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -47,10 +70,14 @@ public class TransactionController {
     }
     
     @GetMapping("/transaction/student")
-    public ResponseEntity<List<Transaction>> getStudentTransactions(@RequestParam("cardId") int cardId) {
+    public ResponseEntity<?> getStudentTransactions(@RequestParam("cardId") int cardId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "0") int size) {
         try {
-            List<Transaction> transactions = transactionService.getTransactionsByCardId(cardId);
-            return ResponseEntity.ok(transactions);
+            TransactionPage page = transactionService.getTransactionsByCardId(cardId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -58,12 +85,16 @@ public class TransactionController {
     }
     
     @GetMapping("/transaction/book")
-    public ResponseEntity<List<Transaction>> getBookTransactions(@RequestParam("bookId") int bookId) {
+    public ResponseEntity<?> getBookTransactions(@RequestParam("bookId") int bookId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "0") int size) {
         try {
             System.out.println("Controller: Fetching transactions for book ID: " + bookId);
-            List<Transaction> transactions = transactionService.getTransactionsByBookId(bookId);
-            System.out.println("Controller: Found " + transactions.size() + " transactions");
-            return ResponseEntity.ok(transactions);
+            TransactionPage page = transactionService.getTransactionsByBookId(bookId, cursor, size);
+            System.out.println("Controller: Found " + page.getItems().size() + " transactions");
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             System.err.println("Controller: Error fetching book transactions: " + e.getMessage());
             e.printStackTrace();
@@ -71,10 +102,51 @@ public class TransactionController {
         }
     }
     
+    @GetMapping("/transaction/export")
+    public ResponseEntity<?> exportTransactions(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "studentId", required = false) Integer studentId,
+            @RequestParam(value = "bookId", required = false) Integer bookId,
+            @RequestParam(value = "gzip", required = false) Boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TransactionExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+            ? TransactionExportService.Format.CSV
+            : "ndjson".equalsIgnoreCase(format) ? TransactionExportService.Format.NDJSON : null;
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported export format: " + format));
+        }
+        boolean compress = gzip != null ? gzip : acceptEncoding != null && acceptEncoding.contains("gzip");
+        String extension = exportFormat == TransactionExportService.Format.CSV ? "csv" : "ndjson";
+        
+        StreamingResponseBody body = out -> {
+            if (compress) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                transactionExportService.export(exportFormat, from, to, studentId, bookId, gzipOut);
+                gzipOut.finish();
+            } else {
+                transactionExportService.export(exportFormat, from, to, studentId, bookId, out);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(exportFormat == TransactionExportService.Format.CSV
+                ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + extension + "\"");
+        if (compress) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
     @GetMapping("/transaction/overdue")
-    public ResponseEntity<List<Transaction>> getOverdueTransactions() {
+    public ResponseEntity<List<Transaction>> getOverdueTransactions(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
         try {
-            List<Transaction> transactions = transactionService.getOverdueTransactions();
+            List<Transaction> transactions = transactionService.getOverdueTransactions(page, size);
             return ResponseEntity.ok(transactions);
         } catch (Exception e) {
             e.printStackTrace();
@@ -84,9 +156,10 @@ public class TransactionController {
 
     @PostMapping("/transaction/issueBook")
     public ResponseEntity<?> issueBook(@RequestParam(value = "studentId") int studentId,
-                                    @RequestParam("bookId")int bookId) throws Exception {
+                                    @RequestParam("bookId")int bookId,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws Exception {
         try {
-            String transaction_id = transactionService.issueBooks(studentId, bookId);
+            String transaction_id = transactionService.issueBooks(studentId, bookId, idempotencyKey);
             return ResponseEntity.ok(Map.of(
                 "message", "Book issued successfully",
                 "transactionId", transaction_id
@@ -99,9 +172,10 @@ public class TransactionController {
     
     @PostMapping("/transaction/returnBook")
     public ResponseEntity<?> returnBook(@RequestParam("studentId") int studentId,
-                                     @RequestParam("bookId") int bookId) throws Exception {
+                                     @RequestParam("bookId") int bookId,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws Exception {
         try {
-            String transaction_id = transactionService.returnBooks(studentId, bookId);
+            String transaction_id = transactionService.returnBooks(studentId, bookId, idempotencyKey);
             return ResponseEntity.ok(Map.of(
                 "message", "Book returned successfully",
                 "transactionId", transaction_id
@@ -111,4 +185,39 @@ public class TransactionController {
                 .body(Map.of("error", e.getMessage()));
         }
     }
+    
+    @PostMapping("/transaction/issueBatch")
+    public ResponseEntity<?> issueBatch(@RequestBody List<CirculationRequest> requests) {
+        return processBatch(requests, true);
+    }
+    
+    @PostMapping("/transaction/returnBatch")
+    public ResponseEntity<?> returnBatch(@RequestBody List<CirculationRequest> requests) {
+        return processBatch(requests, false);
+    }
+    
+    private ResponseEntity<?> processBatch(List<CirculationRequest> requests, boolean issue) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No items provided"));
+        }
+        if (requests.size() > maxBatchItems) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Batch exceeds the maximum of " + maxBatchItems + " items"));
+        }
+        try {
+            List<CirculationResult> results = issue
+                ? transactionService.issueBatch(requests)
+                : transactionService.returnBatch(requests);
+            long succeeded = results.stream().filter(CirculationResult::isSuccess).count();
+            return ResponseEntity.ok(Map.of(
+                "succeeded", succeeded,
+                "failed", results.size() - succeeded,
+                "results", results
+            ));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.StudentLibrary.Studentlibrary.Model;
 
+import java.util.Date;
 import java.util.List;
 
 import javax.persistence.CascadeType;
@@ -15,6 +16,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.Version;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -39,6 +41,11 @@ public class Book {
     @JsonIgnore
     private Student student;
 
+    // Set while the book waits on the shelf for the student at the head of its hold queue
+    private Integer holdStudentId;
+
+    private Date holdExpiresAt;
+
     private Integer publishedYear;
     
     @Column(columnDefinition = "boolean default true")
@@ -48,15 +55,26 @@ public class Book {
     @Column(columnDefinition = "TEXT")
     private String description;
     
-    @Lob
-    @Column(name = "cover_image", columnDefinition = "bytea")
+    // Cover image bytes live in the cover store under this SHA-256 hash
+    @Column(length = 64)
+    @JsonIgnore
+    private String coverHash;
+
+    @JsonIgnore
+    private Long coverSize;
+
     @JsonIgnore
-    private byte[] coverImage;
+    private String coverContentType;
 
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Transaction> transactions;
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    @JsonIgnore
+    private long version;
+
     public Book() {
         this.available = true;
     }
@@ -108,6 +126,22 @@ public class Book {
         this.student = student;
     }
 
+    public Integer getHoldStudentId() {
+        return holdStudentId;
+    }
+
+    public void setHoldStudentId(Integer holdStudentId) {
+        this.holdStudentId = holdStudentId;
+    }
+
+    public Date getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(Date holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public boolean isAvailable() {
         return available;
     }
@@ -124,6 +158,14 @@ public class Book {
         this.transactions = transactions;
     }
     
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
     public String getDescription() {
         return description;
     }
@@ -140,17 +182,39 @@ public class Book {
         this.publishedYear = publishedYear;
     }
     
-    public byte[] getCoverImage() {
-        return coverImage;
+    public String getCoverHash() {
+        return coverHash;
+    }
+
+    public void setCoverHash(String coverHash) {
+        this.coverHash = coverHash;
     }
 
-    public void setCoverImage(byte[] coverImage) {
-        this.coverImage = coverImage;
+    public Long getCoverSize() {
+        return coverSize;
+    }
+
+    public void setCoverSize(Long coverSize) {
+        this.coverSize = coverSize;
+    }
+
+    public String getCoverContentType() {
+        return coverContentType;
+    }
+
+    public void setCoverContentType(String coverContentType) {
+        this.coverContentType = coverContentType;
     }
     
     @JsonProperty("hasImage")
     public boolean hasImage() {
-        return coverImage != null && coverImage.length > 0;
+        return coverHash != null;
+    }
+
+    /** Changes whenever the cover does; clients add it to image URLs as {@code v} to cache them for good. */
+    @JsonProperty("imageVersion")
+    public String getImageVersion() {
+        return coverHash != null ? coverHash.substring(0, 16) : null;
     }
     
     @Override
@@ -0,0 +1,125 @@
+package com.StudentLibrary.Studentlibrary.Model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A student's place in the FIFO queue for an unavailable book. Holds are served in id order;
+ * when the book comes back the first WAITING hold becomes READY until {@code pickupExpiresAt}.
+ * The partial unique index on active holds is created by SchemaInitializer.
+ */
+@Entity
+@Table(name = "book_hold", indexes = {
+        @Index(name = "idx_book_hold_book_status_id", columnList = "book_id, status, id"),
+        @Index(name = "idx_book_hold_student_status", columnList = "student_id, status")
+})
+public class Hold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    @JsonIgnore
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    @JsonIgnore
+    private Student student;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HoldStatus status;
+
+    @Column(nullable = false)
+    private Date createdAt;
+
+    private Date readyAt;
+
+    private Date pickupExpiresAt;
+
+    public Hold() {
+    }
+
+    public Hold(Book book, Student student) {
+        this.book = book;
+        this.student = student;
+        this.status = HoldStatus.WAITING;
+        this.createdAt = new Date();
+    }
+
+    public boolean isActive() {
+        return status == HoldStatus.WAITING || status == HoldStatus.READY;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HoldStatus status) {
+        this.status = status;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(Date readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    public Date getPickupExpiresAt() {
+        return pickupExpiresAt;
+    }
+
+    public void setPickupExpiresAt(Date pickupExpiresAt) {
+        this.pickupExpiresAt = pickupExpiresAt;
+    }
+}
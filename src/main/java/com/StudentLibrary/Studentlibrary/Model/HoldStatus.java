@@ -0,0 +1,9 @@
+package com.StudentLibrary.Studentlibrary.Model;
+
+public enum HoldStatus {
+    WAITING,
+    READY,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
@@ -0,0 +1,102 @@
+package com.StudentLibrary.Studentlibrary.Model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Client-supplied Idempotency-Key of a committed issue/return and the transaction it produced.
+ * The primary key is the uniqueness guarantee: a replay that reaches the database fails its
+ * insert and gets the stored transactionId instead of running again.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String operation;
+
+    private int studentId;
+
+    private int bookId;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private Date createdAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String idempotencyKey, String operation, int studentId, int bookId, String transactionId) {
+        this.idempotencyKey = idempotencyKey;
+        this.operation = operation;
+        this.studentId = studentId;
+        this.bookId = bookId;
+        this.transactionId = transactionId;
+        this.createdAt = new Date();
+    }
+
+    /** Whether this record was created by the same operation on the same student and book. */
+    public boolean matches(String operation, int studentId, int bookId) {
+        return this.operation.equals(operation) && this.studentId == studentId && this.bookId == bookId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(int bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
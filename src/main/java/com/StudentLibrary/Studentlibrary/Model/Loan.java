@@ -0,0 +1,166 @@
+package com.StudentLibrary.Studentlibrary.Model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * One row per book loan, open while {@code returnDate} is null. Issue and return
+ * operations work against this row; {@link Transaction} stays the append-only audit trail.
+ * The partial indexes on open loans are created by SchemaInitializer.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_loan_book_student", columnList = "book_id, student_id")
+})
+public class Loan {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    @JsonIgnore
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    @JsonIgnore
+    private Student student;
+
+    private String issueTransactionId;
+
+    private String returnTransactionId;
+
+    @Column(nullable = false)
+    private Date issueDate;
+
+    @Column(nullable = false)
+    private Date dueDate;
+
+    private Date returnDate;
+
+    @Column(columnDefinition = "integer not null default 0")
+    private int fineAmount;
+
+    // Maintained nightly by FineAccrualJob while the loan is open
+    @Column(columnDefinition = "integer not null default 0")
+    private int accruedDays;
+
+    @Column(columnDefinition = "integer not null default 0")
+    private int accruedFine;
+
+    public Loan() {
+    }
+
+    public Loan(Book book, Student student, String issueTransactionId, Date issueDate, Date dueDate) {
+        this.book = book;
+        this.student = student;
+        this.issueTransactionId = issueTransactionId;
+        this.issueDate = issueDate;
+        this.dueDate = dueDate;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+
+    public String getIssueTransactionId() {
+        return issueTransactionId;
+    }
+
+    public void setIssueTransactionId(String issueTransactionId) {
+        this.issueTransactionId = issueTransactionId;
+    }
+
+    public String getReturnTransactionId() {
+        return returnTransactionId;
+    }
+
+    public void setReturnTransactionId(String returnTransactionId) {
+        this.returnTransactionId = returnTransactionId;
+    }
+
+    public Date getIssueDate() {
+        return issueDate;
+    }
+
+    public void setIssueDate(Date issueDate) {
+        this.issueDate = issueDate;
+    }
+
+    public Date getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(Date dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public Date getReturnDate() {
+        return returnDate;
+    }
+
+    public void setReturnDate(Date returnDate) {
+        this.returnDate = returnDate;
+    }
+
+    public int getFineAmount() {
+        return fineAmount;
+    }
+
+    public void setFineAmount(int fineAmount) {
+        this.fineAmount = fineAmount;
+    }
+
+    public int getAccruedDays() {
+        return accruedDays;
+    }
+
+    public void setAccruedDays(int accruedDays) {
+        this.accruedDays = accruedDays;
+    }
+
+    public int getAccruedFine() {
+        return accruedFine;
+    }
+
+    public void setAccruedFine(int accruedFine) {
+        this.accruedFine = accruedFine;
+    }
+
+    public boolean isOpen() {
+        return returnDate == null;
+    }
+}
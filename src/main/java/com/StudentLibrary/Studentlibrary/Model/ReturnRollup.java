@@ -0,0 +1,60 @@
+package com.StudentLibrary.Studentlibrary.Model;
+
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Per-day return counters maintained by ReturnStatsService. A return counts as on time when
+ * it was made no later than the loan's due date.
+ */
+@Entity
+@Table(name = "return_daily_rollup")
+public class ReturnRollup {
+    @Id
+    private LocalDate day;
+
+    @Column(columnDefinition = "bigint not null default 0")
+    private long returns;
+
+    @Column(columnDefinition = "bigint not null default 0")
+    private long onTimeReturns;
+
+    @Column(columnDefinition = "bigint not null default 0")
+    private long totalFine;
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getReturns() {
+        return returns;
+    }
+
+    public void setReturns(long returns) {
+        this.returns = returns;
+    }
+
+    public long getOnTimeReturns() {
+        return onTimeReturns;
+    }
+
+    public void setOnTimeReturns(long onTimeReturns) {
+        this.onTimeReturns = onTimeReturns;
+    }
+
+    public long getTotalFine() {
+        return totalFine;
+    }
+
+    public void setTotalFine(long totalFine) {
+        this.totalFine = totalFine;
+    }
+}
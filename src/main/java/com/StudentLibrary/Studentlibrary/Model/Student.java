@@ -12,8 +12,10 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.Version;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 public class Student {
@@ -42,6 +44,17 @@ public class Student {
     @JsonIgnore
     private List<Transaction> transactions;
 
+    // Open loans, written only by the issue/return UPDATEs (never by an entity save, which
+    // could write back a stale count); a check constraint keeps it non-negative
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int activeLoanCount;
+
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    @JsonIgnore
+    private long version;
+
     public Student() {
     }
 
@@ -115,4 +128,20 @@ public class Student {
     public void setTransactions(List<Transaction> transactions) {
         this.transactions = transactions;
     }
+
+    public int getActiveLoanCount() {
+        return activeLoanCount;
+    }
+
+    public void setActiveLoanCount(int activeLoanCount) {
+        this.activeLoanCount = activeLoanCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -10,18 +10,39 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 
 import org.hibernate.annotations.CreationTimestamp;
 
+import com.StudentLibrary.Studentlibrary.util.UuidV7;
+
 @Entity
+@Table(indexes = {
+        // Drives the overdue scan: open issue rows older than the loan period
+        @Index(name = "idx_transaction_issue_date", columnList = "is_issue_operation, transaction_date"),
+        // Probe used by the overdue anti-join to find a later return for the same pair
+        @Index(name = "idx_transaction_book_student_op", columnList = "book_id, student_id, is_issue_operation, transaction_date"),
+        // Keyset pagination of the full history and of per-student/per-book history
+        @Index(name = "idx_transaction_date_id", columnList = "transaction_date, id"),
+        @Index(name = "idx_transaction_student_date_id", columnList = "student_id, transaction_date, id"),
+        @Index(name = "idx_transaction_book_date_id", columnList = "book_id, transaction_date, id"),
+        // Lookup by public id. A unique index on a partitioned table must include the partition
+        // key, so the database only rejects a repeated transaction_id on the same timestamp;
+        // uniqueness across dates rests on UuidV7 (see transactionId)
+        @Index(name = "ux_transaction_transaction_id", columnList = "transaction_id, transaction_date", unique = true)
+})
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
 
-    private String transactionId = UUID.randomUUID().toString();
+    // Globally unique by construction, not by constraint: ids from one process strictly
+    // increase, and ids from different processes differ in 62 random bits
+    @Column(columnDefinition = "uuid")
+    private UUID transactionId = UuidV7.generate();
 
     @ManyToOne
     @JoinColumn
@@ -53,11 +74,11 @@ public class Transaction {
         this.id = id;
     }
 
-    public String getTransactionId() {
+    public UUID getTransactionId() {
         return transactionId;
     }
 
-    public void setTransactionId(String transactionId) {
+    public void setTransactionId(UUID transactionId) {
         this.transactionId = transactionId;
     }
 
@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.transaction.Transactional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,18 +12,20 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.dto.BookSummary;
 
 @Repository
 @Transactional
 public interface BookRepository extends JpaRepository<Book, Integer> {
 
     @Modifying
-    @Query("update Book b set b.name = :#{#book.name}, b.genre = :#{#book.genre}, b.description = :#{#book.description}, b.publishedYear = :#{#book.publishedYear}, b.available = :#{#book.available}, b.author.id = :#{#book.author.id} where b.id = :#{#book.id}")
+    @Query("update Book b set b.name = :#{#book.name}, b.genre = :#{#book.genre}, b.description = :#{#book.description}, b.publishedYear = :#{#book.publishedYear}, b.available = :#{#book.available}, b.author.id = :#{#book.author.id}, b.version = b.version + 1 where b.id = :#{#book.id}")
     int updateBook(@Param("book") Book book);
     
     @Modifying
-    @Query("update Book b set b.coverImage = :imageData where b.id = :bookId")
-    int updateBookImage(@Param("bookId") int bookId, @Param("imageData") byte[] imageData);
+    @Query("update Book b set b.coverHash = :hash, b.coverSize = :size, b.coverContentType = :contentType where b.id = :bookId")
+    int updateCover(@Param("bookId") int bookId, @Param("hash") String hash, @Param("size") long size,
+            @Param("contentType") String contentType);
 
     @Query("select b from Book b where b.genre = :genre and b.available = :isAvailable and b.author.name = :author")
     List<Book> findBooksByGenre_Author(@Param("genre") String genre, @Param("author") String author, @Param("isAvailable") boolean isAvailable);
@@ -39,4 +42,17 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
     long countByAvailable(boolean available);
     
     List<Book> findTop5ByOrderByIdDesc();
+    
+    @Query("select b.id from Book b where b.author.id = :authorId")
+    List<Integer> findIdsByAuthorId(@Param("authorId") int authorId);
+
+    // Catalog listing: plain column reads in primary-key order, keyset-paged by id
+    String SUMMARY = "select new com.StudentLibrary.Studentlibrary.dto.BookSummary(b.id, b.name, b.genre, a.name, "
+            + "b.available, b.publishedYear, b.coverHash) from Book b left join b.author a";
+
+    @Query(SUMMARY + " order by b.id")
+    List<BookSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY + " where b.id > :afterId order by b.id")
+    List<BookSummary> findSummariesAfter(@Param("afterId") int afterId, Pageable pageable);
 }
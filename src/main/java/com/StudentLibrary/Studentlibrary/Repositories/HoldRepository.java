@@ -0,0 +1,41 @@
+package com.StudentLibrary.Studentlibrary.Repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.StudentLibrary.Studentlibrary.Model.Hold;
+import com.StudentLibrary.Studentlibrary.Model.HoldStatus;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Integer> {
+
+    /** Head of each book's queue, one row per book that has anyone waiting. */
+    @Query("select h from Hold h where h.book.id in :bookIds and h.status = com.StudentLibrary.Studentlibrary.Model.HoldStatus.WAITING "
+            + "and h.id = (select min(w.id) from Hold w where w.book.id = h.book.id "
+            + "and w.status = com.StudentLibrary.Studentlibrary.Model.HoldStatus.WAITING)")
+    List<Hold> findNextWaiting(@Param("bookIds") Collection<Integer> bookIds);
+
+    @Query("select h from Hold h where h.book.id in :bookIds and h.status = com.StudentLibrary.Studentlibrary.Model.HoldStatus.READY")
+    List<Hold> findReadyByBookIds(@Param("bookIds") Collection<Integer> bookIds);
+
+    @Query("select h from Hold h where h.book.id = :bookId and h.student.id = :studentId "
+            + "and h.status in (com.StudentLibrary.Studentlibrary.Model.HoldStatus.WAITING, com.StudentLibrary.Studentlibrary.Model.HoldStatus.READY)")
+    Optional<Hold> findActiveHold(@Param("bookId") int bookId, @Param("studentId") int studentId);
+
+    @Query("select h from Hold h join fetch h.book where h.student.id = :studentId "
+            + "and h.status in (com.StudentLibrary.Studentlibrary.Model.HoldStatus.WAITING, com.StudentLibrary.Studentlibrary.Model.HoldStatus.READY) "
+            + "order by h.id")
+    List<Hold> findActiveHoldsByStudent(@Param("studentId") int studentId);
+
+    @Query("select count(h) from Hold h where h.student.id = :studentId "
+            + "and h.status in (com.StudentLibrary.Studentlibrary.Model.HoldStatus.WAITING, com.StudentLibrary.Studentlibrary.Model.HoldStatus.READY)")
+    long countActiveHoldsByStudent(@Param("studentId") int studentId);
+
+    List<Hold> findByStatusOrderByIdAsc(HoldStatus status);
+}
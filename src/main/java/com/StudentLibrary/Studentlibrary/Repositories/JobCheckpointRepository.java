@@ -0,0 +1,9 @@
+package com.StudentLibrary.Studentlibrary.Repositories;
+
+import com.StudentLibrary.Studentlibrary.Model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,23 @@
+package com.StudentLibrary.Studentlibrary.Repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.StudentLibrary.Studentlibrary.Model.Loan;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Integer> {
+
+    // Served by the partial unique index on open loans (ux_loan_open_book)
+    @Query("select l from Loan l where l.book.id = :bookId and l.student.id = :studentId and l.returnDate is null")
+    Optional<Loan> findOpenLoan(@Param("bookId") int bookId, @Param("studentId") int studentId);
+
+    @Query("select l from Loan l where l.book.id in :bookIds and l.returnDate is null")
+    List<Loan> findOpenLoansByBookIds(@Param("bookIds") Collection<Integer> bookIds);
+}
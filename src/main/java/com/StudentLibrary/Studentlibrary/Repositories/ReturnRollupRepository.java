@@ -0,0 +1,33 @@
+package com.StudentLibrary.Studentlibrary.Repositories;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.StudentLibrary.Studentlibrary.Model.ReturnRollup;
+
+@Repository
+public interface ReturnRollupRepository extends JpaRepository<ReturnRollup, LocalDate> {
+
+    interface Totals {
+        long getReturns();
+
+        long getOnTimeReturns();
+
+        long getTotalFine();
+    }
+
+    @Query("select coalesce(sum(r.returns), 0) as returns, coalesce(sum(r.onTimeReturns), 0) as onTimeReturns, "
+            + "coalesce(sum(r.totalFine), 0) as totalFine from ReturnRollup r")
+    Totals findTotals();
+
+    @Query("select coalesce(sum(r.returns), 0) as returns, coalesce(sum(r.onTimeReturns), 0) as onTimeReturns, "
+            + "coalesce(sum(r.totalFine), 0) as totalFine from ReturnRollup r where r.day >= :from")
+    Totals findTotalsSince(@Param("from") LocalDate from);
+
+    @Query("select max(r.day) from ReturnRollup r")
+    LocalDate findLastDay();
+}
@@ -2,6 +2,9 @@ package com.StudentLibrary.Studentlibrary.Repositories;
 
 import com.StudentLibrary.Studentlibrary.Model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,13 @@ import java.util.Optional;
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Integer> {
     Optional<Student> findByEmailId(String emailId);
+
+    // Takes a loan slot only while under the quota; returns 0 when the student is at the limit
+    @Modifying
+    @Query("update Student s set s.activeLoanCount = s.activeLoanCount + 1 where s.id = :id and s.activeLoanCount < :max")
+    int reserveLoanSlot(@Param("id") int id, @Param("max") int max);
+
+    @Modifying
+    @Query("update Student s set s.activeLoanCount = s.activeLoanCount - 1 where s.id = :id and s.activeLoanCount > 0")
+    int releaseLoanSlot(@Param("id") int id);
 }
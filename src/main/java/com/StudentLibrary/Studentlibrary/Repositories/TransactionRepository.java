@@ -1,29 +1,74 @@
 package com.StudentLibrary.Studentlibrary.Repositories;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.StudentLibrary.Studentlibrary.Model.Book;
-import com.StudentLibrary.Studentlibrary.Model.Student;
 import com.StudentLibrary.Studentlibrary.Model.Transaction;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
-    List<Transaction> findByBookAndStudentAndIsIssueOperationTrueOrderByTransactionDateDesc(
-            Book book, Student student, Pageable pageable);
-            
-    Optional<Transaction> findByTransactionId(String transactionId);
+    Optional<Transaction> findByTransactionId(UUID transactionId);
     
-    List<Transaction> findByStudent(Student student, Sort sort);
+    // The date range lets a partitioned table skip partitions that cannot hold the row
+    @Query("select t from Transaction t where t.transactionId = :transactionId "
+            + "and t.transactionDate >= :from and t.transactionDate < :to")
+    Optional<Transaction> findByTransactionIdBetween(@Param("transactionId") UUID transactionId,
+            @Param("from") Date from, @Param("to") Date to);
     
-    List<Transaction> findByBook(Book book, Sort sort);
-    
-    List<Transaction> findByIsIssueOperationTrue(Sort sort);
-    
-    boolean existsByBookAndStudentAndIsIssueOperationFalse(Book book, Student student);
+    /**
+     * Issue transactions older than {@code dueBefore} with no return recorded after them
+     * for the same book/student pair. Oldest first, i.e. most days overdue first.
+     */
+    @EntityGraph(attributePaths = {"book", "student"})
+    @Query("select t from Transaction t where t.isIssueOperation = true and t.transactionDate < :dueBefore "
+            + "and not exists (select r.id from Transaction r where r.book = t.book and r.student = t.student "
+            + "and r.isIssueOperation = false and r.transactionDate >= t.transactionDate) "
+            + "order by t.transactionDate asc, t.id asc")
+    List<Transaction> findOverdueIssues(@Param("dueBefore") Date dueBefore, Pageable pageable);
+
+    // Keyset pages, newest first, from :since on. "date <= :date" gives the index scan its start
+    // bound; the second predicate skips rows of the boundary timestamp already returned. Both
+    // date bounds also prune the monthly partitions the scan has to visit.
+    String SINCE = "t.transactionDate >= :since";
+    String KEYSET_AFTER = "t.transactionDate <= :date and (t.transactionDate < :date or t.id < :id)";
+    String NEWEST_FIRST = " order by t.transactionDate desc, t.id desc";
+
+    @EntityGraph(attributePaths = {"book", "book.author", "student"})
+    @Query("select t from Transaction t where " + SINCE + NEWEST_FIRST)
+    List<Transaction> findPage(@Param("since") Date since, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "book.author", "student"})
+    @Query("select t from Transaction t where " + SINCE + " and " + KEYSET_AFTER + NEWEST_FIRST)
+    List<Transaction> findPageAfter(@Param("since") Date since, @Param("date") Date date, @Param("id") int id,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "book.author", "student"})
+    @Query("select t from Transaction t where t.student.id = :studentId and " + SINCE + NEWEST_FIRST)
+    List<Transaction> findStudentPage(@Param("studentId") int studentId, @Param("since") Date since,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "book.author", "student"})
+    @Query("select t from Transaction t where t.student.id = :studentId and " + SINCE + " and " + KEYSET_AFTER
+            + NEWEST_FIRST)
+    List<Transaction> findStudentPageAfter(@Param("studentId") int studentId, @Param("since") Date since,
+            @Param("date") Date date, @Param("id") int id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "book.author", "student"})
+    @Query("select t from Transaction t where t.book.id = :bookId and " + SINCE + NEWEST_FIRST)
+    List<Transaction> findBookPage(@Param("bookId") int bookId, @Param("since") Date since, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "book.author", "student"})
+    @Query("select t from Transaction t where t.book.id = :bookId and " + SINCE + " and " + KEYSET_AFTER
+            + NEWEST_FIRST)
+    List<Transaction> findBookPageAfter(@Param("bookId") int bookId, @Param("since") Date since,
+            @Param("date") Date date, @Param("id") int id, Pageable pageable);
 }
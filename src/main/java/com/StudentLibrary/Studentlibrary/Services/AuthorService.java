@@ -2,7 +2,9 @@ package com.StudentLibrary.Studentlibrary.Services;
 
 import com.StudentLibrary.Studentlibrary.Model.Author;
 import com.StudentLibrary.Studentlibrary.Repositories.AuthorRepository;
+import com.StudentLibrary.Studentlibrary.events.AuthorChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,6 +14,12 @@ import java.util.Optional;
 public class AuthorService {
     @Autowired
     AuthorRepository authorRepository;
+    
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    CatalogCache catalogCache;
 
     public void createAuthor(Author author){
         authorRepository.save(author);
@@ -27,7 +35,10 @@ public class AuthorService {
             authorToUpdate.setName(author.getName());
             authorToUpdate.setAge(author.getAge());
             authorToUpdate.setCountry(author.getCountry());
-            return authorRepository.save(authorToUpdate);
+            Author savedAuthor = authorRepository.save(authorToUpdate);
+            catalogCache.invalidateAuthor(savedAuthor.getId());
+            eventPublisher.publishEvent(new AuthorChangedEvent(savedAuthor.getId()));
+            return savedAuthor;
         } else {
             // Create new author
             return authorRepository.save(author);
@@ -39,16 +50,23 @@ public class AuthorService {
     }
     
     public Author getAuthorById(int id) {
-        return authorRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Author not found with id: " + id));
+        Author author = catalogCache.getAuthor(id, authorId -> authorRepository.findById(authorId).orElse(null));
+        if (author == null) {
+            throw new RuntimeException("Author not found with id: " + id);
+        }
+        return author;
     }
     
     public void updateAuthor(Author author){
         authorRepository.updateAuthorDetails(author);
+        catalogCache.invalidateAuthor(author.getId());
+        eventPublisher.publishEvent(new AuthorChangedEvent(author.getId()));
     }
     
     public void deleteAuthor(int id){
         authorRepository.deleteCustom(id);
+        catalogCache.invalidateAuthor(id);
+        eventPublisher.publishEvent(new AuthorChangedEvent(id));
     }
     
     public int getTotalAuthorsCount() {
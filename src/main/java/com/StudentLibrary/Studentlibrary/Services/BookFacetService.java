@@ -0,0 +1,416 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.dto.FacetCount;
+import com.StudentLibrary.Studentlibrary.dto.FacetPage;
+import com.StudentLibrary.Studentlibrary.events.AuthorChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.BookChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.CatalogImportedEvent;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.CompressedBitmap;
+import com.StudentLibrary.Studentlibrary.util.LoadTracker;
+
+/**
+ * Faceted filtering over compressed bitmaps of book ids: one per genre, one per author,
+ * and one each for available and unavailable books. Any genre/author/availability filter
+ * is an intersection, and facet counts are intersection sizes, so a query never touches
+ * the database until it loads the page of books it returns. Built from one streamed
+ * query at startup and updated one book at a time from catalog and loan events.
+ */
+@Service
+public class BookFacetService {
+
+    private static final String SELECT_BOOKS =
+        "SELECT b.id, b.genre, b.author_id, b.available, a.name FROM book b LEFT JOIN author a ON a.id = b.author_id";
+
+    private static final Genre[] GENRES = Genre.values();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${books.facets.default_size}")
+    private int defaultPageSize;
+
+    @Value("${books.facets.max_size}")
+    private int maxPageSize;
+
+    @Value("${books.facets.max_authors}")
+    private int maxAuthors;
+
+    @Value("${books.search.load_fetch_size}")
+    private int loadFetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    private volatile FacetIndex index = new FacetIndex();
+
+    // Books changed while the startup load runs are re-read into the new index once it goes live
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(loadFetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        loadTracker.begin();
+        FacetIndex fresh = new FacetIndex();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(SELECT_BOOKS,
+                rs -> {
+                    int authorId = rs.getInt(3);
+                    fresh.put(rs.getInt(1), genreOf(rs.getString(2)), rs.wasNull() ? 0 : authorId,
+                        rs.getString(5), rs.getBoolean(4));
+                }));
+        } catch (Exception e) {
+            System.err.println("Facets: Failed to load book facets: " + e.getMessage());
+        }
+        loadTracker.finish(() -> index = fresh, this::reload);
+        System.out.println("Facets: Loaded " + fresh.size() + " books (" + fresh.sizeInBytes() / 1024 + " KB of bitmaps) in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDeleted()) {
+            loadTracker.markChanged(event.getBookId());
+            index.remove(event.getBookId());
+        } else {
+            reload(event.getBookId());
+        }
+    }
+
+    /** Issues and returns change availability. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        reload(event.getBookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        for (int bookId : bookRepository.findIdsByAuthorId(event.getAuthorId())) {
+            reload(bookId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(SELECT_BOOKS + " WHERE b.id > ?",
+                rs -> {
+                    int bookId = rs.getInt(1);
+                    int authorId = rs.getInt(3);
+                    loadTracker.markChanged(bookId);
+                    index.put(bookId, genreOf(rs.getString(2)), rs.wasNull() ? 0 : authorId, rs.getString(5),
+                        rs.getBoolean(4));
+                },
+                event.getAfterBookId()));
+        } catch (Exception e) {
+            System.err.println("Facets: Failed to load imported books: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Books matching every given filter (null filters match everything), in id order, with
+     * genre and availability counts and the authors with the most matching books.
+     */
+    public FacetPage facets(Genre genre, Integer authorId, Boolean available, int page, int size) {
+        int pageSize = size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        int pageNumber = Math.max(page, 0);
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE);
+        int[] ids = new int[pageSize];
+        FacetIndex.Result result = index.query(genre, authorId, available, offset, ids, maxAuthors);
+
+        List<Integer> pageIds = new ArrayList<>(result.found);
+        for (int i = 0; i < result.found; i++) {
+            pageIds.add(ids[i]);
+        }
+        Map<Integer, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(pageIds)) {
+            books.put(book.getId(), book);
+        }
+        List<Book> items = new ArrayList<>();
+        for (int id : pageIds) {
+            Book book = books.get(id);
+            if (book != null) {
+                items.add(book);
+            }
+        }
+        return new FacetPage(pageNumber, pageSize, result.total, items, result.genres, result.availability, result.authors);
+    }
+
+    private void reload(int bookId) {
+        loadTracker.markChanged(bookId);
+        try {
+            boolean[] found = {false};
+            jdbcTemplate.query(SELECT_BOOKS + " WHERE b.id = ?", rs -> {
+                int authorId = rs.getInt(3);
+                index.put(bookId, genreOf(rs.getString(2)), rs.wasNull() ? 0 : authorId, rs.getString(5),
+                    rs.getBoolean(4));
+                found[0] = true;
+            }, bookId);
+            if (!found[0]) {
+                index.remove(bookId);
+            }
+        } catch (Exception e) {
+            System.err.println("Facets: Failed to reload book " + bookId + ": " + e.getMessage());
+        }
+    }
+
+    private static Genre genreOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Genre.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** The bitmaps, plus each book's current genre and author so an update can clear the old bits. */
+    private static final class FacetIndex {
+
+        static final class Result {
+            int total;
+            int found;
+            List<FacetCount> genres;
+            List<FacetCount> availability;
+            List<FacetCount> authors;
+        }
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final CompressedBitmap all = new CompressedBitmap();
+        private final CompressedBitmap available = new CompressedBitmap();
+        private final CompressedBitmap unavailable = new CompressedBitmap();
+        private final CompressedBitmap[] genres = new CompressedBitmap[GENRES.length];
+        private final Map<Integer, CompressedBitmap> authors = new HashMap<>();
+        private final Map<Integer, String> authorNames = new HashMap<>();
+
+        // Author ids by descending book count, rebuilt on the first query after a write
+        private volatile int[] authorsBySize;
+
+        // Indexed by book id: genre ordinal + 1 (0 = none) and author id (0 = none)
+        private byte[] genreOf = new byte[1024];
+        private int[] authorOf = new int[1024];
+
+        FacetIndex() {
+            for (int i = 0; i < genres.length; i++) {
+                genres[i] = new CompressedBitmap();
+            }
+        }
+
+        void put(int bookId, Genre genre, int authorId, String authorName, boolean isAvailable) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(bookId);
+                ensureCapacity(bookId);
+                authorsBySize = null;
+                all.add(bookId);
+                (isAvailable ? available : unavailable).add(bookId);
+                if (genre != null) {
+                    genres[genre.ordinal()].add(bookId);
+                    genreOf[bookId] = (byte) (genre.ordinal() + 1);
+                }
+                if (authorId != 0) {
+                    authors.computeIfAbsent(authorId, id -> new CompressedBitmap()).add(bookId);
+                    authorOf[bookId] = authorId;
+                    if (authorName != null) {
+                        authorNames.put(authorId, authorName);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int bookId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(bookId);
+                authorsBySize = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return all.getCardinality();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long sizeInBytes() {
+            lock.readLock().lock();
+            try {
+                long bytes = all.getSizeInBytes() + available.getSizeInBytes() + unavailable.getSizeInBytes()
+                    + genreOf.length + authorOf.length * 4L;
+                for (CompressedBitmap bitmap : genres) {
+                    bytes += bitmap.getSizeInBytes();
+                }
+                for (CompressedBitmap bitmap : authors.values()) {
+                    bytes += bitmap.getSizeInBytes();
+                }
+                return bytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Result query(Genre genre, Integer authorId, Boolean isAvailable, int offset, int[] ids, int maxAuthors) {
+            lock.readLock().lock();
+            try {
+                CompressedBitmap genreFilter = genre == null ? null : genres[genre.ordinal()];
+                CompressedBitmap authorFilter = authorId == null ? null
+                    : authors.getOrDefault(authorId, new CompressedBitmap());
+                CompressedBitmap availabilityFilter = isAvailable == null ? null : isAvailable ? available : unavailable;
+
+                Result result = new Result();
+                CompressedBitmap matches = intersect(genreFilter, authorFilter, availabilityFilter);
+                result.total = matches.getCardinality();
+                result.found = matches.fill(offset, ids);
+
+                // Each facet is counted under the other two filters
+                CompressedBitmap withoutGenre = intersect(null, authorFilter, availabilityFilter);
+                result.genres = new ArrayList<>(GENRES.length);
+                for (Genre value : GENRES) {
+                    result.genres.add(new FacetCount(value.name(), value.name(), count(withoutGenre, genres[value.ordinal()])));
+                }
+
+                CompressedBitmap withoutAvailability = intersect(genreFilter, authorFilter, null);
+                result.availability = Arrays.asList(
+                    new FacetCount("true", "available", count(withoutAvailability, available)),
+                    new FacetCount("false", "unavailable", count(withoutAvailability, unavailable)));
+
+                CompressedBitmap withoutAuthor = intersect(genreFilter, null, availabilityFilter);
+                PriorityQueue<FacetCount> top = new PriorityQueue<>(
+                    (a, b) -> a.getCount() != b.getCount() ? Integer.compare(a.getCount(), b.getCount())
+                        : b.getValue().compareTo(a.getValue()));
+                // An author's count under the filters is at most their book count, so once that
+                // cannot beat the k-th best count found so far, no later author can either
+                for (int author : maxAuthors > 0 ? rankAuthors() : new int[0]) {
+                    CompressedBitmap books = authors.get(author);
+                    if (top.size() == maxAuthors && books.getCardinality() <= top.peek().getCount()) {
+                        break;
+                    }
+                    int count = count(withoutAuthor, books);
+                    if (count == 0 || (top.size() == maxAuthors && count <= top.peek().getCount())) {
+                        continue;
+                    }
+                    top.add(new FacetCount(Integer.toString(author), authorNames.get(author), count));
+                    if (top.size() > maxAuthors) {
+                        top.poll();
+                    }
+                }
+                result.authors = new ArrayList<>(top);
+                result.authors.sort((a, b) -> Integer.compare(b.getCount(), a.getCount()));
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Called under the read lock: writers are excluded, and concurrent readers build the same array
+        private int[] rankAuthors() {
+            int[] ranked = authorsBySize;
+            if (ranked == null) {
+                ranked = authors.entrySet().stream()
+                    .sorted((a, b) -> a.getValue().getCardinality() != b.getValue().getCardinality()
+                        ? Integer.compare(b.getValue().getCardinality(), a.getValue().getCardinality())
+                        : Integer.compare(a.getKey(), b.getKey()))
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+                authorsBySize = ranked;
+            }
+            return ranked;
+        }
+
+        // The filters' intersection; "all" when no filter is given
+        private CompressedBitmap intersect(CompressedBitmap first, CompressedBitmap second, CompressedBitmap third) {
+            CompressedBitmap result = all;
+            for (CompressedBitmap filter : new CompressedBitmap[] {first, second, third}) {
+                if (filter != null) {
+                    result = result == all ? filter : CompressedBitmap.and(result, filter);
+                }
+            }
+            return result;
+        }
+
+        private int count(CompressedBitmap filter, CompressedBitmap facet) {
+            return filter == all ? facet.getCardinality() : CompressedBitmap.andCardinality(filter, facet);
+        }
+
+        private void removeLocked(int bookId) {
+            if (!all.remove(bookId)) {
+                return;
+            }
+            available.remove(bookId);
+            unavailable.remove(bookId);
+            int genre = genreOf[bookId];
+            if (genre != 0) {
+                genres[genre - 1].remove(bookId);
+                genreOf[bookId] = 0;
+            }
+            int authorId = authorOf[bookId];
+            if (authorId != 0) {
+                CompressedBitmap books = authors.get(authorId);
+                if (books != null) {
+                    books.remove(bookId);
+                    if (books.isEmpty()) {
+                        authors.remove(authorId);
+                        authorNames.remove(authorId);
+                    }
+                }
+                authorOf[bookId] = 0;
+            }
+        }
+
+        private void ensureCapacity(int bookId) {
+            if (bookId >= genreOf.length) {
+                int capacity = Math.max(bookId + 1, genreOf.length * 2);
+                genreOf = Arrays.copyOf(genreOf, capacity);
+                authorOf = Arrays.copyOf(authorOf, capacity);
+            }
+        }
+    }
+}
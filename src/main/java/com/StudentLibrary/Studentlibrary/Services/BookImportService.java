@@ -0,0 +1,524 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+import com.StudentLibrary.Studentlibrary.dto.ImportReject;
+import com.StudentLibrary.Studentlibrary.dto.ImportReport;
+import com.StudentLibrary.Studentlibrary.events.CatalogImportedEvent;
+import com.StudentLibrary.Studentlibrary.util.CsvReader;
+import com.StudentLibrary.Studentlibrary.util.MarcTextReader;
+
+/**
+ * Bulk catalog import from CSV or MARC text. Records are parsed one at a time from the
+ * request stream, authors are resolved through an email-to-id map loaded once per import
+ * (new ones are inserted per batch), and books are written with JDBC batch inserts, one
+ * transaction per batch. A record that fails validation is rejected and the import goes
+ * on; batches committed before a failure stay. Existing authors are matched by email,
+ * ignoring case, and are not modified.
+ */
+@Service
+public class BookImportService {
+
+    public enum Format {
+        CSV, MARC
+    }
+
+    private static final String INSERT_AUTHOR =
+        "INSERT INTO author (name, email, age, country) VALUES (?, ?, 0, ?) ON CONFLICT (email) DO NOTHING";
+    private static final String INSERT_BOOK =
+        "INSERT INTO book (name, genre, author_id, available, published_year, description, version) "
+        + "VALUES (?, ?, ?, true, ?, ?, 0)";
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int KEPT_REPORTS = 20;
+    private static final Pattern YEAR = Pattern.compile("\\d{4}");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${books.import.batch_size}")
+    private int batchSize;
+
+    @Value("${books.import.max_record_chars}")
+    private int maxRecordChars;
+
+    @Value("${books.import.max_reported_rejects}")
+    private int maxReportedRejects;
+
+    @Value("${books.import.progress_interval}")
+    private long progressInterval;
+
+    @Value("${books.search.load_fetch_size}")
+    private int loadFetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate cursorTemplate;
+    private NamedParameterJdbcTemplate namedTemplate;
+    private TransactionTemplate batchTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    // Running imports and the most recent finished ones, oldest first
+    private final Map<String, ImportReport> reports = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(loadFetchSize);
+        namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        batchTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Imports every record in {@code in} and returns the final report. Throws
+     * IllegalArgumentException if a CSV header has no title column; anything else that
+     * stops the import early is recorded in the report as FAILED.
+     */
+    public ImportReport importBooks(Format format, InputStream in) {
+        ImportReport report = new ImportReport(UUID.randomUUID().toString(), format.name());
+        register(report);
+        long start = System.currentTimeMillis();
+        System.out.println("Import: Starting " + format + " import " + report.getImportId());
+        Integer maxId = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM book", Integer.class);
+        int afterBookId = maxId == null ? 0 : maxId;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+            skipByteOrderMark(reader);
+            RecordSource source = format == Format.CSV
+                ? new CsvSource(new CsvReader(reader, maxRecordChars))
+                : new MarcSource(new MarcTextReader(reader, maxRecordChars));
+            Map<String, Integer> authorIds = loadAuthorIds();
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            long recordsRead = 0;
+            while (true) {
+                ImportRow row;
+                try {
+                    row = source.next();
+                } catch (IllegalArgumentException e) {
+                    reject(report, source.line(), e.getMessage());
+                    report.setRecordsRead(++recordsRead);
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                report.setRecordsRead(++recordsRead);
+                String problem = row.validate();
+                if (problem != null) {
+                    reject(report, row.line, problem);
+                } else {
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        writeBatch(batch, authorIds, report);
+                        batch.clear();
+                    }
+                }
+                if (recordsRead % progressInterval == 0) {
+                    System.out.println("Import: " + report.getImportId() + " read " + recordsRead + ", inserted "
+                        + report.getBooksInserted() + ", rejected " + report.getRejected()
+                        + String.format(" (%.0f books/s)", report.getBooksPerSecond()));
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, authorIds, report);
+            }
+            finish(report, ImportReport.Status.COMPLETED, start);
+        } catch (InvalidHeaderException e) {
+            report.setError(e.getMessage());
+            finish(report, ImportReport.Status.FAILED, start);
+            throw new IllegalArgumentException(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Import: " + report.getImportId() + " stopped: " + e.getMessage());
+            e.printStackTrace();
+            report.setError(e.getMessage());
+            finish(report, ImportReport.Status.FAILED, start);
+        } finally {
+            if (report.getBooksInserted() > 0) {
+                eventPublisher.publishEvent(new CatalogImportedEvent(afterBookId, report.getBooksInserted()));
+            }
+            System.out.println("Import: " + report.getImportId() + " " + report.getStatus() + ": read "
+                + report.getRecordsRead() + ", inserted " + report.getBooksInserted() + ", new authors "
+                + report.getAuthorsCreated() + ", rejected " + report.getRejected() + " in " + report.getElapsedMs()
+                + String.format(" ms (%.0f books/s)", report.getBooksPerSecond()));
+        }
+        return report;
+    }
+
+    public List<ImportReport> getReports() {
+        synchronized (reports) {
+            return new ArrayList<>(reports.values());
+        }
+    }
+
+    public ImportReport getReport(String importId) {
+        synchronized (reports) {
+            return reports.get(importId);
+        }
+    }
+
+    // Inserts the batch's new authors, then its books, in one transaction
+    private void writeBatch(List<ImportRow> batch, Map<String, Integer> authorIds, ImportReport report) {
+        Map<String, ImportRow> newAuthors = new LinkedHashMap<>();
+        for (ImportRow row : batch) {
+            if (row.authorEmail != null && !authorIds.containsKey(row.authorKey())) {
+                newAuthors.putIfAbsent(row.authorKey(), row);
+            }
+        }
+        Map<String, Integer> createdIds = new HashMap<>();
+        try {
+            batchTransaction.executeWithoutResult(status -> {
+                if (!newAuthors.isEmpty()) {
+                    List<ImportRow> authors = new ArrayList<>(newAuthors.values());
+                    jdbcTemplate.batchUpdate(INSERT_AUTHOR, authors, authors.size(), (ps, row) -> {
+                        ps.setString(1, row.authorName);
+                        ps.setString(2, row.authorEmail);
+                        ps.setString(3, row.authorCountry);
+                    });
+                    List<String> emails = new ArrayList<>();
+                    for (ImportRow row : authors) {
+                        emails.add(row.authorEmail);
+                    }
+                    namedTemplate.query("SELECT id, email FROM author WHERE email IN (:emails)",
+                        Map.of("emails", emails), rs -> {
+                            createdIds.put(rs.getString(2).toLowerCase(Locale.ROOT), rs.getInt(1));
+                        });
+                }
+                jdbcTemplate.batchUpdate(INSERT_BOOK, batch, batch.size(), (ps, row) -> {
+                    ps.setString(1, row.title);
+                    if (row.genre != null) {
+                        ps.setString(2, row.genre.name());
+                    } else {
+                        ps.setNull(2, Types.VARCHAR);
+                    }
+                    Integer authorId = row.authorEmail == null ? null
+                        : authorIds.getOrDefault(row.authorKey(), createdIds.get(row.authorKey()));
+                    if (authorId != null) {
+                        ps.setInt(3, authorId);
+                    } else {
+                        ps.setNull(3, Types.INTEGER);
+                    }
+                    if (row.publishedYear != null) {
+                        ps.setInt(4, row.publishedYear);
+                    } else {
+                        ps.setNull(4, Types.INTEGER);
+                    }
+                    ps.setString(5, row.description);
+                });
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Import: " + report.getImportId() + " batch failed: " + e.getMessage());
+            for (ImportRow row : batch) {
+                reject(report, row.line, "Batch failed: " + e.getMessage());
+            }
+            return;
+        }
+        // Only committed authors may be reused by later batches
+        authorIds.putAll(createdIds);
+        report.setAuthorsCreated(report.getAuthorsCreated() + createdIds.size());
+        report.setBooksInserted(report.getBooksInserted() + batch.size());
+    }
+
+    private static void finish(ImportReport report, ImportReport.Status status, long start) {
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        report.setStatus(status);
+    }
+
+    private Map<String, Integer> loadAuthorIds() {
+        Map<String, Integer> authorIds = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(
+            "SELECT id, email FROM author WHERE email IS NOT NULL",
+            rs -> {
+                authorIds.putIfAbsent(rs.getString(2).toLowerCase(Locale.ROOT), rs.getInt(1));
+            }));
+        return authorIds;
+    }
+
+    private void reject(ImportReport report, long line, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejects().size() < maxReportedRejects) {
+            report.getRejects().add(new ImportReject(line, reason));
+        }
+    }
+
+    private void register(ImportReport report) {
+        synchronized (reports) {
+            reports.put(report.getImportId(), report);
+            int finished = 0;
+            for (ImportReport existing : reports.values()) {
+                if (existing.getStatus() != ImportReport.Status.RUNNING) {
+                    finished++;
+                }
+            }
+            Iterator<ImportReport> oldest = reports.values().iterator();
+            while (finished > KEPT_REPORTS && oldest.hasNext()) {
+                if (oldest.next().getStatus() != ImportReport.Status.RUNNING) {
+                    oldest.remove();
+                    finished--;
+                }
+            }
+        }
+    }
+
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private interface RecordSource {
+        /** The next record, or null at end of input. */
+        ImportRow next() throws IOException;
+
+        long line();
+    }
+
+    /** Columns are matched by header name; unknown columns are ignored. */
+    private static final class CsvSource implements RecordSource {
+        private final CsvReader reader;
+        private int title = -1;
+        private int genre = -1;
+        private int authorName = -1;
+        private int authorEmail = -1;
+        private int authorCountry = -1;
+        private int publishedYear = -1;
+        private int description = -1;
+
+        CsvSource(CsvReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                return;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+                switch (column) {
+                    case "title":
+                    case "name":
+                        title = i;
+                        break;
+                    case "genre":
+                        genre = i;
+                        break;
+                    case "author":
+                    case "author_name":
+                        authorName = i;
+                        break;
+                    case "author_email":
+                    case "email":
+                        authorEmail = i;
+                        break;
+                    case "author_country":
+                    case "country":
+                        authorCountry = i;
+                        break;
+                    case "published_year":
+                    case "year":
+                        publishedYear = i;
+                        break;
+                    case "description":
+                        description = i;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (title < 0) {
+                throw new InvalidHeaderException("CSV header must have a title (or name) column");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> fields = reader.readRecord();
+            if (fields == null) {
+                return null;
+            }
+            ImportRow row = new ImportRow(reader.getRecordLine());
+            row.title = blankToNull(field(fields, title));
+            row.genreText = blankToNull(field(fields, genre));
+            row.authorName = blankToNull(field(fields, authorName));
+            row.authorEmail = blankToNull(field(fields, authorEmail));
+            row.authorCountry = blankToNull(field(fields, authorCountry));
+            row.yearText = blankToNull(field(fields, publishedYear));
+            row.description = blankToNull(field(fields, description));
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return reader.getRecordLine();
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    /**
+     * Title from 245 $a (with $b appended), author name from 100 $a, author email and
+     * country from 270 $m and $d, year from the first four digits of 264 or 260 $c, genre
+     * from 655 $a and description from 520 $a.
+     */
+    private static final class MarcSource implements RecordSource {
+        private final MarcTextReader reader;
+
+        MarcSource(MarcTextReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            MarcTextReader.Record record = reader.readRecord();
+            if (record == null) {
+                return null;
+            }
+            ImportRow row = new ImportRow(reader.getRecordLine());
+            String title = trimPunctuation(record.getSubfield("245", 'a'));
+            String subtitle = trimPunctuation(record.getSubfield("245", 'b'));
+            row.title = title != null && subtitle != null ? title + ": " + subtitle : title;
+            row.authorName = trimPunctuation(record.getSubfield("100", 'a'));
+            row.authorEmail = blankToNull(record.getSubfield("270", 'm'));
+            row.authorCountry = trimPunctuation(record.getSubfield("270", 'd'));
+            row.genreText = trimPunctuation(record.getSubfield("655", 'a'));
+            row.description = blankToNull(record.getSubfield("520", 'a'));
+            String date = record.getSubfield("264", 'c');
+            if (date == null) {
+                date = record.getSubfield("260", 'c');
+            }
+            if (date != null) {
+                Matcher year = YEAR.matcher(date);
+                row.yearText = year.find() ? year.group() : date;
+            }
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return reader.getRecordLine();
+        }
+
+        // ISBD punctuation ends most MARC subfields ("Title /", "Smith, John,")
+        private static String trimPunctuation(String value) {
+            String trimmed = blankToNull(value);
+            if (trimmed == null) {
+                return null;
+            }
+            int end = trimmed.length();
+            while (end > 0 && " /:;,.=".indexOf(trimmed.charAt(end - 1)) >= 0) {
+                end--;
+            }
+            return blankToNull(trimmed.substring(0, end));
+        }
+    }
+
+    private static final class ImportRow {
+        final long line;
+        String title;
+        String genreText;
+        String authorName;
+        String authorEmail;
+        String authorCountry;
+        String yearText;
+        String description;
+        Genre genre;
+        Integer publishedYear;
+
+        ImportRow(long line) {
+            this.line = line;
+        }
+
+        String authorKey() {
+            return authorEmail.toLowerCase(Locale.ROOT);
+        }
+
+        /** Checks the record and fills the typed fields; returns why it is rejected, or null. */
+        String validate() {
+            if (title == null) {
+                return "Missing title";
+            }
+            if (title.length() > MAX_TEXT_LENGTH) {
+                return "Title longer than " + MAX_TEXT_LENGTH + " characters";
+            }
+            if (authorName != null && authorEmail == null) {
+                return "Author email is required to identify the author";
+            }
+            if (authorEmail != null && authorName == null) {
+                return "Author name is required with an author email";
+            }
+            if (tooLong(authorName) || tooLong(authorEmail) || tooLong(authorCountry)) {
+                return "Author field longer than " + MAX_TEXT_LENGTH + " characters";
+            }
+            if (genreText != null) {
+                try {
+                    genre = Genre.valueOf(genreText.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+                } catch (IllegalArgumentException e) {
+                    return "Unknown genre: " + genreText;
+                }
+            }
+            if (yearText != null) {
+                try {
+                    publishedYear = Integer.parseInt(yearText);
+                } catch (NumberFormatException e) {
+                    return "Invalid published year: " + yearText;
+                }
+            }
+            return null;
+        }
+
+        private static boolean tooLong(String value) {
+            return value != null && value.length() > MAX_TEXT_LENGTH;
+        }
+    }
+
+    // Fails the whole import rather than rejecting records one by one
+    private static final class InvalidHeaderException extends RuntimeException {
+        InvalidHeaderException(String message) {
+            super(message);
+        }
+    }
+}
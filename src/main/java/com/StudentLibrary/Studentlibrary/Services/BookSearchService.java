@@ -0,0 +1,198 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.dto.BookSearchPage;
+import com.StudentLibrary.Studentlibrary.events.AuthorChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.BookChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.CatalogImportedEvent;
+import com.StudentLibrary.Studentlibrary.util.Bm25Index;
+import com.StudentLibrary.Studentlibrary.util.LoadTracker;
+import com.StudentLibrary.Studentlibrary.util.TextAnalyzer;
+
+/**
+ * Full-text search over book name, description and author name, ranked with BM25. The
+ * index is built from the database at startup and updated from book and author change
+ * events once they commit. Name matches weigh three times a description match and author
+ * matches twice.
+ */
+@Service
+public class BookSearchService {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${books.search.default_size}")
+    private int defaultPageSize;
+
+    @Value("${books.search.max_size}")
+    private int maxPageSize;
+
+    @Value("${books.search.load_fetch_size}")
+    private int loadFetchSize;
+
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    private volatile Bm25Index index = new Bm25Index();
+
+    // Books changed while a rebuild runs are re-read into the new index once it goes live
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    @PostConstruct
+    public void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(loadFetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        loadTracker.begin();
+        Bm25Index fresh = new Bm25Index();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(
+                "SELECT b.id, b.name, b.description, a.name FROM book b LEFT JOIN author a ON a.id = b.author_id",
+                rs -> {
+                    fresh.put(rs.getInt(1), termFrequencies(rs.getString(2), rs.getString(3), rs.getString(4)));
+                }));
+        } catch (Exception e) {
+            System.err.println("Search: Failed to build the book index: " + e.getMessage());
+        }
+        loadTracker.finish(() -> index = fresh, this::reindex);
+        System.out.println("Search: Indexed " + fresh.size() + " books in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDeleted()) {
+            loadTracker.markChanged(event.getBookId());
+            index.remove(event.getBookId());
+        } else {
+            refresh(event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        for (int bookId : bookRepository.findIdsByAuthorId(event.getAuthorId())) {
+            refresh(bookId);
+        }
+    }
+
+    /** Indexes the imported id range in one streamed pass. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        long start = System.currentTimeMillis();
+        int[] count = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(
+                "SELECT b.id, b.name, b.description, a.name FROM book b LEFT JOIN author a ON a.id = b.author_id "
+                    + "WHERE b.id > ?",
+                rs -> {
+                    int bookId = rs.getInt(1);
+                    loadTracker.markChanged(bookId);
+                    index.put(bookId, termFrequencies(rs.getString(2), rs.getString(3), rs.getString(4)));
+                    count[0]++;
+                },
+                event.getAfterBookId()));
+        } catch (Exception e) {
+            System.err.println("Search: Failed to index imported books: " + e.getMessage());
+        }
+        System.out.println("Search: Indexed " + count[0] + " imported books in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public BookSearchPage search(String query, int page, int size) {
+        int pageSize = size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        int pageNumber = Math.max(page, 0);
+        List<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty()) {
+            return new BookSearchPage(query, pageNumber, pageSize, 0, new ArrayList<>());
+        }
+
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE - pageSize);
+        Bm25Index.Hits hits = index.search(terms, offset, pageSize);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int id : hits.getDocIds()) {
+            ids.add(id);
+        }
+        Map<Integer, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            books.put(book.getId(), book);
+        }
+        List<Book> items = new ArrayList<>();
+        for (int id : ids) {
+            Book book = books.get(id);
+            if (book != null) {
+                items.add(book);
+            }
+        }
+        return new BookSearchPage(query, pageNumber, pageSize, hits.getTotal(), items);
+    }
+
+    private void refresh(int bookId) {
+        loadTracker.markChanged(bookId);
+        reindex(bookId);
+    }
+
+    private void reindex(int bookId) {
+        try {
+            Optional<Book> book = bookRepository.findById(bookId);
+            if (book.isPresent()) {
+                Book b = book.get();
+                String authorName = b.getAuthor() != null ? b.getAuthor().getName() : null;
+                index.put(bookId, termFrequencies(b.getName(), b.getDescription(), authorName));
+            } else {
+                index.remove(bookId);
+            }
+        } catch (Exception e) {
+            System.err.println("Search: Failed to reindex book " + bookId + ": " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(String name, String description, String authorName) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, name, NAME_WEIGHT);
+        addTerms(frequencies, authorName, AUTHOR_WEIGHT);
+        addTerms(frequencies, description, DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
@@ -1,28 +1,64 @@
 package com.StudentLibrary.Studentlibrary.Services;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.StudentLibrary.Studentlibrary.Model.Book;
 import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.dto.BookSummary;
+import com.StudentLibrary.Studentlibrary.dto.BookSummaryPage;
+import com.StudentLibrary.Studentlibrary.events.BookChangedEvent;
+import com.StudentLibrary.Studentlibrary.util.ContentAddressedStore;
 
 @Service
 @Transactional
 public class BookService {
 
+
     @Autowired
     private BookRepository bookRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private ContentAddressedStore coverStore;
+    
+    @Autowired
+    private CoverThumbnailService thumbnailService;
+    
+    @Autowired
+    private CatalogReplica catalogReplica;
+    
+    @Value("${books.catalog.default_size}")
+    private int defaultCatalogPageSize;
+    
+    @Value("${books.catalog.max_size}")
+    private int maxCatalogPageSize;
 
     public Book createBook(Book book) {
         if (book == null) {
             throw new IllegalArgumentException("Book cannot be null");
         }
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        catalogCache.invalidateBook(savedBook.getId());
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook.getId(), false));
+        return savedBook;
     }
     
     public Book createBookWithImage(Book book, MultipartFile image) throws IOException {
@@ -31,17 +67,17 @@ public class BookService {
         }
         
         if (image != null && !image.isEmpty()) {
-            byte[] imageData = image.getBytes();
-            System.out.println("Setting image data on book, size: " + imageData.length + " bytes");
-            book.setCoverImage(imageData);
+            ContentAddressedStore.StoredBlob cover = storeCover(image);
+            System.out.println("Stored cover image " + cover.getHash() + ", size: " + cover.getSize() + " bytes");
+            book.setCoverHash(cover.getHash());
+            book.setCoverSize(cover.getSize());
+            book.setCoverContentType(cover.getImageType());
         }
         
         Book savedBook = bookRepository.save(book);
-        System.out.println("Book saved with ID: " + savedBook.getId() + 
-                          ", has image: " + (savedBook.getCoverImage() != null && savedBook.getCoverImage().length > 0));
-        if (savedBook.getCoverImage() != null) {
-            System.out.println("Saved image size: " + savedBook.getCoverImage().length + " bytes");
-        }
+        catalogCache.invalidateBook(savedBook.getId());
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook.getId(), false));
+        System.out.println("Book saved with ID: " + savedBook.getId() + ", has image: " + savedBook.hasImage());
         return savedBook;
     }
 
@@ -56,10 +92,25 @@ public class BookService {
         return bookRepository.findBooksByAvailability(isAvailable);
     }
     
+    /** Same filters as {@link #getBooks}, as summary rows; served from the replica without a query when it is loaded. */
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummaries(String genre, boolean isAvailable, String author) {
+        if (catalogReplica.isReady()) {
+            return catalogReplica.findSummaries(genre, author, isAvailable);
+        }
+        List<BookSummary> summaries = new ArrayList<>();
+        for (Book book : getBooks(genre, isAvailable, author)) {
+            summaries.add(new BookSummary(book.getId(), book.getName(), book.getGenre(),
+                book.getAuthor() != null ? book.getAuthor().getName() : null, book.isAvailable(),
+                book.getPublishedYear(), book.getCoverHash()));
+        }
+        return summaries;
+    }
+    
     public List<Book> getAllBooks() {
         try {
             System.out.println("Service: Fetching all books");
-            List<Book> books = bookRepository.findAll();
+            List<Book> books = catalogCache.getAllBooks(bookRepository::findAll);
             System.out.println("Service: Found " + books.size() + " books");
             return books;
         } catch (Exception e) {
@@ -69,11 +120,40 @@ public class BookService {
         }
     }
     
+    /**
+     * One page of the catalog as summary rows, in id order. Reads only the listed columns
+     * and the author's name, so no entities, descriptions or covers are loaded.
+     */
+    @Transactional(readOnly = true)
+    public BookSummaryPage getCatalogPage(String cursor, int size) {
+        int pageSize = size > 0 ? Math.min(size, maxCatalogPageSize) : defaultCatalogPageSize;
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<BookSummary> rows = cursor == null
+            ? bookRepository.findSummaries(page)
+            : bookRepository.findSummariesAfter(decodeCatalogCursor(cursor), page);
+        if (rows.size() <= pageSize) {
+            return new BookSummaryPage(rows, null);
+        }
+        List<BookSummary> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new BookSummaryPage(items, Integer.toString(items.get(pageSize - 1).getId()));
+    }
+    
+    private static int decodeCatalogCursor(String cursor) {
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
     public Book getBookById(int id) {
         try {
             System.out.println("Service: Fetching book with id: " + id);
-            return bookRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
+            Book book = catalogCache.getBook(id, bookId -> bookRepository.findById(bookId).orElse(null));
+            if (book == null) {
+                throw new RuntimeException("Book not found with id: " + id);
+            }
+            return book;
         } catch (Exception e) {
             System.err.println("Service: Error fetching book by id: " + e.getMessage());
             e.printStackTrace();
@@ -81,15 +161,28 @@ public class BookService {
         }
     }
     
-    public byte[] getBookImage(int id) {
+    /**
+     * The book's cover image file, or null when it has none. With {@code size} > 0 this is
+     * the smallest thumbnail at least that big, falling back to the original while the
+     * thumbnail is still being generated.
+     */
+    public Path getBookImage(Book book, int size) {
         try {
-            Book book = getBookById(id);
-            if (book.getCoverImage() == null || book.getCoverImage().length == 0) {
+            if (!book.hasImage()) {
                 System.out.println("Book has no image: " + book.getName());
                 return null;
             }
-            System.out.println("Returning image for book: " + book.getName() + ", image size: " + book.getCoverImage().length + " bytes");
-            return book.getCoverImage();
+            if (size > 0) {
+                Path thumbnail = thumbnailService.findThumbnail(book.getCoverHash(), size);
+                if (thumbnail != null) {
+                    return thumbnail;
+                }
+            }
+            Path file = coverStore.resolve(book.getCoverHash());
+            if (file == null) {
+                System.err.println("Service: Cover image " + book.getCoverHash() + " of book " + book.getId() + " is missing from the store");
+            }
+            return file;
         } catch (Exception e) {
             System.err.println("Service: Error fetching book image: " + e.getMessage());
             e.printStackTrace();
@@ -107,20 +200,17 @@ public class BookService {
                 throw new RuntimeException("Book not found with id: " + bookId);
             }
             
-            // Update the book image
+            // Store the image, then point the book at it
             if (image != null && !image.isEmpty()) {
-                byte[] imageData = image.getBytes();
-                System.out.println("Service: Image size: " + imageData.length + " bytes");
-                
-                // Get the book and update it directly
-                Book book = bookRepository.findById(bookId)
-                    .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
+                ContentAddressedStore.StoredBlob cover = storeCover(image);
+                System.out.println("Service: Stored cover image " + cover.getHash() + ", size: " + cover.getSize() + " bytes");
                 
-                book.setCoverImage(imageData);
-                Book savedBook = bookRepository.save(book);
+                bookRepository.updateCover(bookId, cover.getHash(), cover.getSize(), cover.getImageType());
+                catalogCache.invalidateBook(bookId);
+                eventPublisher.publishEvent(new BookChangedEvent(bookId, false));
                 
-                System.out.println("Service: Book saved with image: " + savedBook.getName() + 
-                                  ", has image: " + (savedBook.getCoverImage() != null && savedBook.getCoverImage().length > 0));
+                Book savedBook = getBookById(bookId);
+                System.out.println("Service: Book saved with image: " + savedBook.getName() + ", has image: " + savedBook.hasImage());
                 return savedBook;
             } else {
                 throw new RuntimeException("Image data is empty");
@@ -145,6 +235,8 @@ public class BookService {
             // Update the book
             int updated = bookRepository.updateBook(book);
             System.out.println("Service: Update result: " + updated + " rows affected");
+            catalogCache.invalidateBook(book.getId());
+            eventPublisher.publishEvent(new BookChangedEvent(book.getId(), false));
             
             // Return the updated book
             Book updatedBook = getBookById(book.getId());
@@ -165,6 +257,8 @@ public class BookService {
             }
             
             bookRepository.deleteById(id);
+            catalogCache.invalidateBook(id);
+            eventPublisher.publishEvent(new BookChangedEvent(id, true));
         } catch (Exception e) {
             System.err.println("Service: Error deleting book: " + e.getMessage());
             e.printStackTrace();
@@ -175,7 +269,7 @@ public class BookService {
     public int getTotalBooksCount() {
         try {
             System.out.println("Service: Getting total books count");
-            long count = bookRepository.count();
+            long count = catalogReplica.isReady() ? catalogReplica.countBooks() : bookRepository.count();
             System.out.println("Service: Total books count: " + count);
             return (int) count;
         } catch (Exception e) {
@@ -188,10 +282,11 @@ public class BookService {
     public double getBorrowedBooksPercentage() {
         try {
             System.out.println("Service: Calculating borrowed books percentage");
-            long totalBooks = bookRepository.count();
+            boolean fromReplica = catalogReplica.isReady();
+            long totalBooks = fromReplica ? catalogReplica.countBooks() : bookRepository.count();
             if (totalBooks == 0) return 0;
             
-            long borrowedBooks = bookRepository.countByAvailable(false);
+            long borrowedBooks = fromReplica ? catalogReplica.countBooks(false) : bookRepository.countByAvailable(false);
             double percentage = (double) borrowedBooks / totalBooks * 100;
             System.out.println("Service: Borrowed books percentage: " + percentage + "% (" + borrowedBooks + "/" + totalBooks + ")");
             return percentage;
@@ -216,4 +311,19 @@ public class BookService {
             return List.of();
         }
     }
+    
+    // Has the multipart temp file moved into the store's incoming directory (a rename when both
+    // are on one file system), then hashed and checked in one read; the image never sits in heap
+    private ContentAddressedStore.StoredBlob storeCover(MultipartFile image) throws IOException {
+        Path incoming = coverStore.newIncomingPath();
+        ContentAddressedStore.StoredBlob cover;
+        try {
+            image.transferTo(incoming.toFile());
+            cover = coverStore.adopt(incoming, true);
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+        thumbnailService.enqueue(cover.getHash());
+        return cover;
+    }
 }
@@ -0,0 +1,280 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.dto.SuggestResult;
+import com.StudentLibrary.Studentlibrary.dto.Suggestion;
+import com.StudentLibrary.Studentlibrary.events.AuthorChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.BookChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.CatalogImportedEvent;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.LoadTracker;
+import com.StudentLibrary.Studentlibrary.util.PrefixSuggester;
+
+/**
+ * Typeahead completions for book titles and author names, ranked by how often they have
+ * been borrowed. Titles and authors are mirrored in memory from book and author change
+ * events, and borrow counts from issue events; a scheduled task rebuilds the immutable
+ * completion tries when something changed, so lookups never touch the database.
+ */
+@Service
+public class BookSuggestService {
+
+    private static final int MAX_PREFIX_LENGTH = 64;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${books.suggest.max_results}")
+    private int maxResults;
+
+    @Value("${books.suggest.weight_refresh_ms}")
+    private long weightRefreshMs;
+
+    @Value("${books.search.load_fetch_size}")
+    private int loadFetchSize;
+
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentMap<Integer, CatalogEntry> catalog = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Long> borrowCounts = new ConcurrentHashMap<>();
+
+    private volatile PrefixSuggester<Suggestion> titles;
+    private volatile PrefixSuggester<Suggestion> authors;
+
+    private volatile boolean catalogChanged;
+    private volatile boolean borrowsChanged;
+    private volatile long lastBuild;
+
+    // Issues before this instant are covered by the startup count
+    private volatile long countingFrom = Long.MAX_VALUE;
+
+    // Books changed while the startup load runs are re-read once it finishes
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private final ThreadLocal<char[]> prefixBuffer = ThreadLocal.withInitial(() -> new char[MAX_PREFIX_LENGTH]);
+
+    @PostConstruct
+    public void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(loadFetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        titles = PrefixSuggester.<Suggestion>builder(maxResults).build();
+        authors = PrefixSuggester.<Suggestion>builder(maxResults).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        loadTracker.begin();
+        try {
+            countingFrom = start;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                cursorTemplate.query(
+                    "SELECT b.id, b.name, a.id, a.name FROM book b LEFT JOIN author a ON a.id = b.author_id",
+                    rs -> {
+                        int authorId = rs.getInt(3);
+                        catalog.putIfAbsent(rs.getInt(1), new CatalogEntry(rs.getString(2),
+                            rs.wasNull() ? 0 : authorId, rs.getString(4)));
+                    });
+                cursorTemplate.query(
+                    "SELECT book_id, count(*) FROM transaction WHERE is_issue_operation = true "
+                        + "AND transaction_status = 'SUCCESSFUL' AND transaction_date < ? GROUP BY book_id",
+                    rs -> {
+                        borrowCounts.merge(rs.getInt(1), rs.getLong(2), Long::sum);
+                    },
+                    new Timestamp(start));
+            });
+        } catch (Exception e) {
+            System.err.println("Suggest: Failed to load titles and borrow counts: " + e.getMessage());
+        }
+        // The load fills the live catalog directly, so there is nothing to swap in
+        loadTracker.finish(() -> { }, this::reload);
+        rebuild();
+        System.out.println("Suggest: Loaded " + catalog.size() + " books in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        loadTracker.markChanged(event.getBookId());
+        if (event.isDeleted()) {
+            catalog.remove(event.getBookId());
+            catalogChanged = true;
+        } else {
+            reload(event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        for (int bookId : bookRepository.findIdsByAuthorId(event.getAuthorId())) {
+            loadTracker.markChanged(bookId);
+            reload(bookId);
+        }
+    }
+
+    /** Loads the imported id range in one streamed pass; the next refresh rebuilds the tries. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(
+                "SELECT b.id, b.name, a.id, a.name FROM book b LEFT JOIN author a ON a.id = b.author_id WHERE b.id > ?",
+                rs -> {
+                    int bookId = rs.getInt(1);
+                    int authorId = rs.getInt(3);
+                    loadTracker.markChanged(bookId);
+                    catalog.put(bookId, new CatalogEntry(rs.getString(2), rs.wasNull() ? 0 : authorId, rs.getString(4)));
+                },
+                event.getAfterBookId()));
+        } catch (Exception e) {
+            System.err.println("Suggest: Failed to load imported books: " + e.getMessage());
+        }
+        catalogChanged = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        if (event.getType() != LoanEvent.Type.ISSUED || event.getOccurredAt().getTime() < countingFrom) {
+            return;
+        }
+        borrowCounts.merge(event.getBookId(), 1L, Long::sum);
+        borrowsChanged = true;
+    }
+
+    /**
+     * Rebuilds the tries when titles or authors changed, or when borrow counts changed and
+     * the ranking has not been refreshed for {@code books.suggest.weight_refresh_ms}.
+     */
+    @Scheduled(fixedDelayString = "${books.suggest.refresh_ms}")
+    public void refresh() {
+        if (catalogChanged || (borrowsChanged && System.currentTimeMillis() - lastBuild >= weightRefreshMs)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Folds the prefix into a per-thread buffer and returns the tries' shared completion
+     * lists, so a keystroke allocates only the result wrapper (and a sublist view when
+     * {@code limit} is below {@code books.suggest.max_results}).
+     */
+    public SuggestResult suggest(String prefix, int limit) {
+        int count = limit <= 0 ? maxResults : Math.min(limit, maxResults);
+        char[] folded = prefixBuffer.get();
+        int length = PrefixSuggester.normalize(prefix == null ? "" : prefix, folded, true);
+        if (length == 0) {
+            return new SuggestResult(prefix, Collections.emptyList(), Collections.emptyList());
+        }
+        return new SuggestResult(prefix, complete(titles, folded, length, count), complete(authors, folded, length, count));
+    }
+
+    private static List<Suggestion> complete(PrefixSuggester<Suggestion> suggester, char[] prefix, int length, int limit) {
+        List<Suggestion> completions = suggester.completions(prefix, length);
+        return completions.size() <= limit ? completions : completions.subList(0, limit);
+    }
+
+    private synchronized void rebuild() {
+        catalogChanged = false;
+        borrowsChanged = false;
+        lastBuild = System.currentTimeMillis();
+
+        // Books sharing a title are one completion pointing at the most borrowed copy
+        Map<String, Suggestion> titleSuggestions = new HashMap<>();
+        Map<Integer, Suggestion> authorSuggestions = new HashMap<>();
+        for (Map.Entry<Integer, CatalogEntry> entry : catalog.entrySet()) {
+            int bookId = entry.getKey();
+            CatalogEntry book = entry.getValue();
+            long borrows = borrowCounts.getOrDefault(bookId, 0L);
+
+            String key = PrefixSuggester.normalize(book.title);
+            Suggestion title = titleSuggestions.get(key);
+            if (title == null) {
+                titleSuggestions.put(key, new Suggestion(book.title, bookId, borrows));
+            } else {
+                if (borrows > borrowCounts.getOrDefault(title.getId(), 0L)) {
+                    title.setText(book.title);
+                    title.setId(bookId);
+                }
+                title.setBorrowCount(title.getBorrowCount() + borrows);
+            }
+
+            if (book.authorId != 0 && book.authorName != null) {
+                Suggestion author = authorSuggestions.computeIfAbsent(book.authorId,
+                    id -> new Suggestion(book.authorName, id, 0));
+                author.setBorrowCount(author.getBorrowCount() + borrows);
+            }
+        }
+
+        PrefixSuggester.Builder<Suggestion> titleBuilder = PrefixSuggester.builder(maxResults);
+        for (Suggestion title : titleSuggestions.values()) {
+            titleBuilder.add(title.getText(), title.getBorrowCount(), title);
+        }
+        PrefixSuggester.Builder<Suggestion> authorBuilder = PrefixSuggester.builder(maxResults);
+        for (Suggestion author : authorSuggestions.values()) {
+            authorBuilder.add(author.getText(), author.getBorrowCount(), author);
+        }
+        titles = titleBuilder.build();
+        authors = authorBuilder.build();
+        System.out.println("Suggest: Rebuilt completions for " + titles.size() + " titles and " + authors.size()
+            + " authors in " + (System.currentTimeMillis() - lastBuild) + " ms");
+    }
+
+    private void reload(int bookId) {
+        try {
+            Optional<Book> book = bookRepository.findById(bookId);
+            if (book.isPresent()) {
+                Book b = book.get();
+                catalog.put(bookId, new CatalogEntry(b.getName(),
+                    b.getAuthor() != null ? b.getAuthor().getId() : 0,
+                    b.getAuthor() != null ? b.getAuthor().getName() : null));
+            } else {
+                catalog.remove(bookId);
+            }
+            catalogChanged = true;
+        } catch (Exception e) {
+            System.err.println("Suggest: Failed to reload book " + bookId + ": " + e.getMessage());
+        }
+    }
+
+    private static class CatalogEntry {
+        final String title;
+        final int authorId;
+        final String authorName;
+
+        CatalogEntry(String title, int authorId, String authorName) {
+            this.title = title;
+            this.authorId = authorId;
+            this.authorName = authorName;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.StudentLibrary.Studentlibrary.Model.Author;
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.events.CatalogImportedEvent;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.BoundedCache;
+
+/**
+ * Read-through cache for book and author lookups, bounded by approximate bytes. Writers
+ * invalidate the entries they touch both immediately and again once their transaction
+ * completes, so a reader that loaded the old row in between cannot leave it cached. Until
+ * then the writing transaction reads around the cache, so rows it has not committed (and
+ * may roll back) are never cached. Cached entities are shared; callers must not modify
+ * them outside a save.
+ */
+@Service
+public class CatalogCache {
+
+    private static final String ALL_BOOKS = "all";
+
+    // Rough per-object overhead of an entity and its strings
+    private static final int ENTITY_OVERHEAD_BYTES = 256;
+
+    @Value("${books.cache.max_bytes}")
+    private long maxBytes;
+
+    @Value("${books.cache.ttl_seconds}")
+    private long ttlSeconds;
+
+    @Value("${books.cache.expected_entries}")
+    private int expectedEntries;
+
+    @Value("${books.cache.list_max_bytes}")
+    private long listMaxBytes;
+
+    // Bound to a transaction once it invalidates an entry, until it completes
+    private final Object writerKey = new Object();
+
+    private BoundedCache<Integer, Book> books;
+    private BoundedCache<Integer, Author> authors;
+    private BoundedCache<String, List<Book>> bookLists;
+
+    @PostConstruct
+    public void init() {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        books = new BoundedCache<>(maxBytes, ttlMillis, (id, book) -> weigh(book), expectedEntries);
+        authors = new BoundedCache<>(maxBytes / 16, ttlMillis, (id, author) -> weigh(author), expectedEntries);
+        // A catalog heavier than this is simply not cached as a list
+        bookLists = new BoundedCache<>(listMaxBytes, ttlMillis, (key, list) -> weigh(list));
+    }
+
+    public Book getBook(int id, Function<Integer, Book> loader) {
+        return writing() ? loader.apply(id) : books.getOrLoad(id, loader);
+    }
+
+    public Author getAuthor(int id, Function<Integer, Author> loader) {
+        return writing() ? loader.apply(id) : authors.getOrLoad(id, loader);
+    }
+
+    public List<Book> getAllBooks(Supplier<List<Book>> loader) {
+        return writing() ? loader.get() : bookLists.getOrLoad(ALL_BOOKS, key -> loader.get());
+    }
+
+    public void invalidateBook(int id) {
+        evictBook(id);
+        afterCompletion(() -> evictBook(id));
+    }
+
+    /** Books embed their author, so an author change drops every cached book. */
+    public void invalidateAuthor(int id) {
+        evictAuthor(id);
+        afterCompletion(() -> evictAuthor(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        evictBook(event.getBookId());
+    }
+
+    /** Imports only add books, so only the cached full list goes stale. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        bookLists.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("books", statsOf(books));
+        stats.put("authors", statsOf(authors));
+        stats.put("bookList", statsOf(bookLists));
+        return stats;
+    }
+
+    private void evictBook(int id) {
+        books.invalidate(id);
+        bookLists.invalidateAll();
+    }
+
+    private void evictAuthor(int id) {
+        authors.invalidate(id);
+        books.invalidateAll();
+        bookLists.invalidateAll();
+    }
+
+    private static Map<String, Object> statsOf(BoundedCache<?, ?> cache) {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.size());
+        stats.put("weight", cache.getWeight());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", cache.getEvictions());
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return stats;
+    }
+
+    private static int weigh(List<Book> list) {
+        long bytes = ENTITY_OVERHEAD_BYTES;
+        for (Book book : list) {
+            bytes += weigh(book);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int weigh(Book book) {
+        long bytes = ENTITY_OVERHEAD_BYTES + 2L * (length(book.getName()) + length(book.getDescription()));
+        if (book.getAuthor() != null) {
+            bytes += weigh(book.getAuthor());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int weigh(Author author) {
+        return ENTITY_OVERHEAD_BYTES + 2 * (length(author.getName()) + length(author.getEmail()) + length(author.getCountry()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private boolean writing() {
+        return TransactionSynchronizationManager.hasResource(writerKey);
+    }
+
+    // Runs on commit and on rollback: a rolled-back writer may still have raced a reader
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        if (!writing()) {
+            TransactionSynchronizationManager.bindResource(writerKey, Boolean.TRUE);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writerKey);
+                action.run();
+            }
+        });
+    }
+}
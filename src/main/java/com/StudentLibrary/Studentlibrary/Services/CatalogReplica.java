@@ -0,0 +1,646 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.dto.BookSummary;
+import com.StudentLibrary.Studentlibrary.events.AuthorChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.BookChangedEvent;
+import com.StudentLibrary.Studentlibrary.events.CatalogImportedEvent;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.LoadTracker;
+
+/**
+ * Optional in-memory copy of the book table in parallel primitive arrays (one slot per
+ * row) and bitsets. It answers the summary view of /api/books/search and the dashboard book
+ * counts without a query; responses that need entities still come from one JPQL query.
+ * A filter is a scan over the arrays that allocates nothing per row. Built from one
+ * streamed query at startup and kept in sync from the catalog and loan events the service
+ * layer publishes; {@link #checkConsistency} compares it with the database. Disabled with
+ * {@code books.replica.enabled=false}, in which case callers fall back to JPQL.
+ */
+@Service
+public class CatalogReplica {
+
+    private static final String SELECT_BOOKS =
+        "SELECT b.id, b.name, b.genre, b.author_id, a.name, b.available, b.published_year, b.cover_hash IS NOT NULL "
+        + "FROM book b LEFT JOIN author a ON a.id = b.author_id";
+
+    private static final Genre[] GENRES = Genre.values();
+    private static final byte NO_GENRE = -1;
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+
+    // Ids reported as inconsistent by a check
+    private static final int MAX_REPORTED_IDS = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${books.replica.enabled}")
+    private boolean enabled;
+
+    @Value("${books.search.load_fetch_size}")
+    private int loadFetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    private volatile Table table = new Table();
+    private volatile boolean ready;
+
+    // Books changed while the startup load runs are re-read into the new table once it goes live
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(loadFetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** True once the startup load has finished; until then callers query the database. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        loadTracker.begin();
+        Table fresh = new Table();
+        boolean loaded = false;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(SELECT_BOOKS,
+                rs -> {
+                    putRow(fresh, rs);
+                }));
+            loaded = true;
+        } catch (Exception e) {
+            System.err.println("Replica: Failed to load the catalog, searches will query the database: " + e.getMessage());
+        }
+        loadTracker.finish(() -> table = fresh, this::reload);
+        ready = loaded;
+        System.out.println("Replica: Loaded " + fresh.liveRows() + " books (" + fresh.sizeInBytes() / 1024 + " KB) in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isDeleted()) {
+            loadTracker.markChanged(event.getBookId());
+            table.remove(event.getBookId());
+        } else {
+            reload(event.getBookId());
+        }
+    }
+
+    /** Issues and returns change availability. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        if (enabled) {
+            reload(event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (int bookId : bookRepository.findIdsByAuthorId(event.getAuthorId())) {
+            reload(bookId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(SELECT_BOOKS + " WHERE b.id > ?",
+                rs -> {
+                    loadTracker.markChanged(rs.getInt(1));
+                    putRow(table, rs);
+                },
+                event.getAfterBookId()));
+        } catch (Exception e) {
+            System.err.println("Replica: Failed to load imported books: " + e.getMessage());
+        }
+    }
+
+    /** Number of books, or of books with the given availability, without a query. */
+    public int countBooks() {
+        return table.liveRows();
+    }
+
+    public int countBooks(boolean available) {
+        return table.countAvailable(available);
+    }
+
+    /**
+     * Summary rows of books with the given availability, genre name and author name (null
+     * genre or author matches any), in id order, built from the replica alone. Same matching
+     * as the JPQL filters behind /api/books/search.
+     */
+    public List<BookSummary> findSummaries(String genre, String author, boolean available) {
+        Table current = table;
+        current.lock.readLock().lock();
+        try {
+            int[] rows = current.match(genre, author, available);
+            List<BookSummary> summaries = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                summaries.add(current.summaryOf(row));
+            }
+            return summaries;
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    /** Row counts and approximate heap bytes per column. */
+    public Map<String, Object> getStats() {
+        Table current = table;
+        current.lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("rows", current.rowCount);
+            stats.put("liveRows", current.liveRows);
+            stats.put("capacity", current.ids.length);
+            stats.put("authors", current.authorNames.size());
+            Map<String, Long> columns = new LinkedHashMap<>();
+            columns.put("ids", current.ids.length * 4L);
+            columns.put("genres", (long) current.genres.length);
+            columns.put("authorIds", current.authorIds.length * 4L);
+            columns.put("years", current.years.length * 4L);
+            columns.put("bits", (current.live.length + current.available.length + current.hasImage.length) * 8L);
+            columns.put("rowIndex", current.rowOf.length * 4L);
+            columns.put("titles", current.titleBytes());
+            columns.put("authorNames", current.authorNameBytes());
+            stats.put("bytes", columns);
+            stats.put("totalBytes", current.sizeInBytes());
+            return stats;
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams the book table and compares every row with the replica. Differences are
+     * re-read once before they are reported, so rows changed during the check are not
+     * flagged; with {@code repair} the replica takes the database values.
+     */
+    public Map<String, Object> checkConsistency(boolean repair) {
+        long start = System.currentTimeMillis();
+        Table current = table;
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> suspects = new ArrayList<>();
+        long[] checked = {0};
+        readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(SELECT_BOOKS,
+            rs -> {
+                int bookId = rs.getInt(1);
+                seen.add(bookId);
+                checked[0]++;
+                if (!current.matchesRow(rs)) {
+                    suspects.add(bookId);
+                }
+            }));
+        for (int bookId : current.liveIds()) {
+            if (!seen.contains(bookId)) {
+                suspects.add(bookId);
+            }
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        List<Integer> extra = new ArrayList<>();
+        List<Integer> mismatched = new ArrayList<>();
+        for (int bookId : suspects) {
+            boolean[] found = {false};
+            boolean[] matches = {false};
+            jdbcTemplate.query(SELECT_BOOKS + " WHERE b.id = ?", rs -> {
+                found[0] = true;
+                matches[0] = current.matchesRow(rs);
+            }, bookId);
+            if (matches[0] || (!found[0] && !current.contains(bookId))) {
+                continue;
+            }
+            List<Integer> kind = !found[0] ? extra : current.contains(bookId) ? mismatched : missing;
+            kind.add(bookId);
+            if (repair) {
+                reload(bookId);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("checkedRows", checked[0]);
+        report.put("replicaRows", current.liveRows());
+        report.put("missing", missing.size());
+        report.put("extra", extra.size());
+        report.put("mismatched", mismatched.size());
+        report.put("missingIds", missing.subList(0, Math.min(missing.size(), MAX_REPORTED_IDS)));
+        report.put("extraIds", extra.subList(0, Math.min(extra.size(), MAX_REPORTED_IDS)));
+        report.put("mismatchedIds", mismatched.subList(0, Math.min(mismatched.size(), MAX_REPORTED_IDS)));
+        report.put("repaired", repair ? missing.size() + extra.size() + mismatched.size() : 0);
+        report.put("elapsedMs", System.currentTimeMillis() - start);
+        System.out.println("Replica: Consistency check " + report);
+        return report;
+    }
+
+    private void reload(int bookId) {
+        loadTracker.markChanged(bookId);
+        try {
+            boolean[] found = {false};
+            jdbcTemplate.query(SELECT_BOOKS + " WHERE b.id = ?", rs -> {
+                putRow(table, rs);
+                found[0] = true;
+            }, bookId);
+            if (!found[0]) {
+                table.remove(bookId);
+            }
+        } catch (Exception e) {
+            System.err.println("Replica: Failed to reload book " + bookId + ": " + e.getMessage());
+        }
+    }
+
+    private static void putRow(Table target, ResultSet rs) throws SQLException {
+        int authorId = rs.getInt(4);
+        boolean hasAuthor = !rs.wasNull();
+        int year = rs.getInt(7);
+        if (rs.wasNull()) {
+            year = NO_YEAR;
+        }
+        target.put(rs.getInt(1), rs.getString(2), genreOrdinal(rs.getString(3)), hasAuthor ? authorId : 0,
+            rs.getString(5), rs.getBoolean(6), year, rs.getBoolean(8));
+    }
+
+    private static byte genreOrdinal(String name) {
+        if (name == null) {
+            return NO_GENRE;
+        }
+        for (Genre genre : GENRES) {
+            if (genre.name().equals(name)) {
+                return (byte) genre.ordinal();
+            }
+        }
+        return NO_GENRE;
+    }
+
+    /** The columns. Row slots are appended; deleted rows leave holes until the next compaction. */
+    private static final class Table {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        int[] ids = new int[1024];
+        String[] titles = new String[1024];
+        byte[] genres = new byte[1024];
+        int[] authorIds = new int[1024];
+        int[] years = new int[1024];
+        long[] live = new long[16];
+        long[] available = new long[16];
+        long[] hasImage = new long[16];
+        int rowCount;
+        int liveRows;
+
+        // Book id -> row + 1 (0 = not present)
+        int[] rowOf = new int[1024];
+
+        final Map<Integer, String> authorNames = new HashMap<>();
+
+        void put(int bookId, String title, byte genre, int authorId, String authorName, boolean isAvailable,
+                int year, boolean image) {
+            lock.writeLock().lock();
+            try {
+                if (bookId >= rowOf.length) {
+                    rowOf = Arrays.copyOf(rowOf, Math.max(bookId + 1, rowOf.length * 2));
+                }
+                int row = rowOf[bookId] - 1;
+                if (row < 0) {
+                    if (rowCount == ids.length) {
+                        grow();
+                    }
+                    row = rowCount++;
+                    rowOf[bookId] = row + 1;
+                    setBit(live, row, true);
+                    liveRows++;
+                }
+                ids[row] = bookId;
+                titles[row] = title;
+                genres[row] = genre;
+                authorIds[row] = authorId;
+                years[row] = year;
+                setBit(available, row, isAvailable);
+                setBit(hasImage, row, image);
+                if (authorId != 0 && authorName != null) {
+                    authorNames.put(authorId, authorName);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int bookId) {
+            lock.writeLock().lock();
+            try {
+                int row = bookId < rowOf.length ? rowOf[bookId] - 1 : -1;
+                if (row < 0) {
+                    return;
+                }
+                rowOf[bookId] = 0;
+                setBit(live, row, false);
+                titles[row] = null;
+                liveRows--;
+                if (rowCount - liveRows > 1024 && rowCount - liveRows > rowCount / 4) {
+                    compact();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean contains(int bookId) {
+            lock.readLock().lock();
+            try {
+                return bookId < rowOf.length && rowOf[bookId] != 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int liveRows() {
+            lock.readLock().lock();
+            try {
+                return liveRows;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int countAvailable(boolean isAvailable) {
+            lock.readLock().lock();
+            try {
+                int count = 0;
+                int words = (rowCount + 63) >>> 6;
+                for (int word = 0; word < words; word++) {
+                    count += Long.bitCount(live[word] & (isAvailable ? available[word] : ~available[word]));
+                }
+                return count;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Integer> liveIds() {
+            lock.readLock().lock();
+            try {
+                List<Integer> result = new ArrayList<>(liveRows);
+                for (int row = 0; row < rowCount; row++) {
+                    if (getBit(live, row)) {
+                        result.add(ids[row]);
+                    }
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /** Matching rows in id order. Caller holds the read lock. */
+        int[] match(String genreName, String authorName, boolean isAvailable) {
+            byte genre = NO_GENRE;
+            if (genreName != null) {
+                genre = genreOrdinal(genreName);
+                if (genre == NO_GENRE) {
+                    return new int[0];
+                }
+            }
+            int[] authors = null;
+            if (authorName != null) {
+                authors = authorsNamed(authorName);
+                if (authors.length == 0) {
+                    return new int[0];
+                }
+            }
+            int onlyAuthor = authors != null && authors.length == 1 ? authors[0] : 0;
+            int[] rows = new int[64];
+            int found = 0;
+            boolean sorted = true;
+            int lastId = -1;
+            for (int row = 0; row < rowCount; row++) {
+                long bit = 1L << row;
+                int word = row >>> 6;
+                if ((live[word] & bit) == 0 || ((available[word] & bit) != 0) != isAvailable) {
+                    continue;
+                }
+                if (genre != NO_GENRE && genres[row] != genre) {
+                    continue;
+                }
+                if (onlyAuthor != 0 ? authorIds[row] != onlyAuthor
+                        : authors != null && Arrays.binarySearch(authors, authorIds[row]) < 0) {
+                    continue;
+                }
+                if (found == rows.length) {
+                    rows = Arrays.copyOf(rows, found * 2);
+                }
+                rows[found++] = row;
+                sorted &= ids[row] > lastId;
+                lastId = ids[row];
+            }
+            rows = Arrays.copyOf(rows, found);
+            if (!sorted) {
+                sortRowsById(rows);
+            }
+            return rows;
+        }
+
+        /** Caller holds the read lock. */
+        BookSummary summaryOf(int row) {
+            BookSummary summary = new BookSummary();
+            summary.setId(ids[row]);
+            summary.setName(titles[row]);
+            summary.setGenre(genres[row] == NO_GENRE ? null : GENRES[genres[row]]);
+            summary.setAuthorName(authorIds[row] == 0 ? null : authorNames.get(authorIds[row]));
+            summary.setAvailable(getBit(available, row));
+            summary.setPublishedYear(years[row] == NO_YEAR ? null : years[row]);
+            summary.setHasImage(getBit(hasImage, row));
+            return summary;
+        }
+
+        /** Whether the replica row for the result set's book has the same values. */
+        boolean matchesRow(ResultSet rs) throws SQLException {
+            int bookId = rs.getInt(1);
+            int authorId = rs.getInt(4);
+            boolean hasAuthor = !rs.wasNull();
+            int year = rs.getInt(7);
+            if (rs.wasNull()) {
+                year = NO_YEAR;
+            }
+            lock.readLock().lock();
+            try {
+                int row = bookId < rowOf.length ? rowOf[bookId] - 1 : -1;
+                return row >= 0
+                    && Objects.equals(titles[row], rs.getString(2))
+                    && genres[row] == genreOrdinal(rs.getString(3))
+                    && authorIds[row] == (hasAuthor ? authorId : 0)
+                    && (!hasAuthor || Objects.equals(authorNames.get(authorId), rs.getString(5)))
+                    && getBit(available, row) == rs.getBoolean(6)
+                    && years[row] == year
+                    && getBit(hasImage, row) == rs.getBoolean(8);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long sizeInBytes() {
+            lock.readLock().lock();
+            try {
+                return ids.length * 4L + genres.length + authorIds.length * 4L + years.length * 4L
+                    + (live.length + available.length + hasImage.length) * 8L + rowOf.length * 4L
+                    + titleBytes() + authorNameBytes();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Reference slots plus String objects (Latin-1 compact strings: ~40 bytes + 1 per char)
+        long titleBytes() {
+            long bytes = titles.length * 4L;
+            for (int row = 0; row < rowCount; row++) {
+                if (titles[row] != null) {
+                    bytes += 40 + titles[row].length();
+                }
+            }
+            return bytes;
+        }
+
+        long authorNameBytes() {
+            long bytes = 0;
+            for (String name : authorNames.values()) {
+                bytes += 72 + (name == null ? 0 : name.length());
+            }
+            return bytes;
+        }
+
+        private int[] authorsNamed(String name) {
+            int[] matches = new int[4];
+            int count = 0;
+            for (Map.Entry<Integer, String> author : authorNames.entrySet()) {
+                if (name.equals(author.getValue())) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = author.getKey();
+                }
+            }
+            matches = Arrays.copyOf(matches, count);
+            Arrays.sort(matches);
+            return matches;
+        }
+
+        // Rows are appended in load/insert order, which is id order except after out-of-order reloads
+        private void sortRowsById(int[] rows) {
+            long[] keyed = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                keyed[i] = ((long) ids[rows[i]] << 32) | rows[i];
+            }
+            Arrays.sort(keyed);
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = (int) keyed[i];
+            }
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            genres = Arrays.copyOf(genres, capacity);
+            authorIds = Arrays.copyOf(authorIds, capacity);
+            years = Arrays.copyOf(years, capacity);
+            int words = (capacity + 63) / 64;
+            live = Arrays.copyOf(live, words);
+            available = Arrays.copyOf(available, words);
+            hasImage = Arrays.copyOf(hasImage, words);
+        }
+
+        // Slides live rows down over the holes left by removals
+        private void compact() {
+            int target = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (!getBit(live, row)) {
+                    continue;
+                }
+                if (target != row) {
+                    ids[target] = ids[row];
+                    titles[target] = titles[row];
+                    genres[target] = genres[row];
+                    authorIds[target] = authorIds[row];
+                    years[target] = years[row];
+                    setBit(available, target, getBit(available, row));
+                    setBit(hasImage, target, getBit(hasImage, row));
+                    setBit(live, target, true);
+                    rowOf[ids[target]] = target + 1;
+                }
+                target++;
+            }
+            for (int row = target; row < rowCount; row++) {
+                titles[row] = null;
+                setBit(live, row, false);
+                setBit(available, row, false);
+                setBit(hasImage, row, false);
+            }
+            rowCount = target;
+        }
+
+        private static boolean getBit(long[] bits, int index) {
+            return (bits[index >>> 6] & (1L << index)) != 0;
+        }
+
+        private static void setBit(long[] bits, int index, boolean value) {
+            if (value) {
+                bits[index >>> 6] |= 1L << index;
+            } else {
+                bits[index >>> 6] &= ~(1L << index);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.StudentLibrary.Studentlibrary.util.ContentAddressedStore;
+import com.StudentLibrary.Studentlibrary.util.ThumbnailRenderer;
+
+/**
+ * Generates fixed-size JPEG thumbnails of cover images on a small bounded worker pool, so
+ * uploads and image requests never wait for image decoding. Thumbnails are stored next to
+ * the original in the cover store and shared by every book with the same cover. A request
+ * for a thumbnail that does not exist yet queues it, which also covers images uploaded
+ * before thumbnails existed or dropped because the queue was full.
+ */
+@Service
+public class CoverThumbnailService {
+
+    @Autowired
+    private ContentAddressedStore coverStore;
+
+    @Value("${books.covers.thumbnail_sizes}")
+    private int[] sizes;
+
+    @Value("${books.covers.thumbnail_threads}")
+    private int threads;
+
+    @Value("${books.covers.thumbnail_queue_capacity}")
+    private int queueCapacity;
+
+    @Value("${books.covers.max_pixels}")
+    private long maxPixels;
+
+    @Value("${books.covers.thumbnail_retry_seconds}")
+    private long retrySeconds;
+
+    private ThreadPoolExecutor workers;
+
+    // Covers queued or being rendered, so repeated requests queue each cover once
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // Covers whose rendering failed, with the time they may be tried again; requests for them
+    // just get the original. Unreadable images are never retried, other failures (disk errors,
+    // corrupt data that may be re-uploaded under the same hash) after retry_seconds
+    private final Map<String, Long> failed = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Arrays.sort(sizes);
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "cover-thumbnails-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Queues thumbnail generation for a stored cover; does nothing if it is already queued. */
+    public void enqueue(String hash) {
+        if (hash == null || !retryDue(hash) || !pending.add(hash)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(hash);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            System.err.println("Thumbnails: Queue full, cover " + hash + " will be retried when next requested");
+        }
+    }
+
+    /**
+     * The thumbnail of the smallest configured size that is at least {@code size} pixels, or
+     * null when the request is larger than every thumbnail or the thumbnail is not ready yet
+     * (in which case it is queued). Callers serve the original instead.
+     */
+    public Path findThumbnail(String hash, int size) {
+        for (int thumbnailSize : sizes) {
+            if (thumbnailSize >= size) {
+                Path thumbnail = coverStore.resolveDerivative(hash, variantOf(thumbnailSize));
+                if (thumbnail == null) {
+                    enqueue(hash);
+                }
+                return thumbnail;
+            }
+        }
+        return null;
+    }
+
+    private void generate(String hash) {
+        Path original = coverStore.resolve(hash);
+        if (original == null) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Map<Integer, byte[]> thumbnails = ThumbnailRenderer.render(original, sizes, maxPixels);
+            for (Map.Entry<Integer, byte[]> thumbnail : thumbnails.entrySet()) {
+                coverStore.storeDerivative(hash, variantOf(thumbnail.getKey()), thumbnail.getValue());
+            }
+            System.out.println("Thumbnails: Rendered " + thumbnails.size() + " sizes of cover " + hash
+                + " in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (ThumbnailRenderer.UnreadableImageException e) {
+            failed.put(hash, Long.MAX_VALUE);
+            System.err.println("Thumbnails: Cannot render cover " + hash + ": " + e.getMessage());
+        } catch (Exception e) {
+            failed.put(hash, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retrySeconds));
+            System.err.println("Thumbnails: Failed to render cover " + hash + ", will retry: " + e.getMessage());
+        }
+    }
+
+    private boolean retryDue(String hash) {
+        Long retryAt = failed.get(hash);
+        if (retryAt == null) {
+            return true;
+        }
+        if (retryAt > System.currentTimeMillis()) {
+            return false;
+        }
+        failed.remove(hash, retryAt);
+        return true;
+    }
+
+    private static String variantOf(int size) {
+        return "t" + size;
+    }
+}
@@ -0,0 +1,141 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.JobCheckpoint;
+import com.StudentLibrary.Studentlibrary.Repositories.JobCheckpointRepository;
+
+/**
+ * Nightly accrual of fines on open overdue loans. Walks open loans in id order, one chunk per
+ * transaction, and only writes loans whose overdue day count changed since the last run. The
+ * chunk's last id is committed with the chunk, so a restarted run picks up where it stopped.
+ */
+@Component
+public class FineAccrualJob {
+
+    static final String JOB_NAME = "fine-accrual";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${books.fine.accrual_chunk_size}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint != null && !checkpoint.isCompleted() && LocalDate.now().equals(checkpoint.getRunDate())) {
+            System.out.println("FineAccrual: Resuming interrupted run after loan id " + checkpoint.getLastId());
+            taskScheduler.schedule(this::accrueFines, new Date());
+        }
+    }
+
+    @Scheduled(cron = "${books.fine.accrual_cron}")
+    public void accrueFines() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("FineAccrual: Run already in progress, skipping");
+            return;
+        }
+        try {
+            run();
+        } catch (Exception e) {
+            System.err.println("FineAccrual: Run failed: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void run() {
+        LocalDate today = LocalDate.now();
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(new JobCheckpoint(JOB_NAME));
+        if (today.equals(checkpoint.getRunDate()) && checkpoint.isCompleted()) {
+            System.out.println("FineAccrual: Already completed for " + today);
+            return;
+        }
+        if (!today.equals(checkpoint.getRunDate())) {
+            checkpoint.setRunDate(today);
+            checkpoint.setLastId(0);
+            checkpoint.setCompleted(false);
+        }
+
+        long started = System.currentTimeMillis();
+        Timestamp asOf = new Timestamp(started);
+        long scanned = 0;
+        long updated = 0;
+        while (true) {
+            int afterId = checkpoint.getLastId();
+            int[] chunk = transactionTemplate.execute(status -> accrueChunk(afterId, asOf, checkpoint));
+            if (chunk[0] == 0) {
+                break;
+            }
+            scanned += chunk[0];
+            updated += chunk[1];
+        }
+        checkpoint.setCompleted(true);
+        checkpoint.setUpdatedAt(new Date());
+        checkpointRepository.save(checkpoint);
+        System.out.println("FineAccrual: Scanned " + scanned + " overdue loans, updated " + updated
+                + " in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    /** Returns {rows scanned, rows updated}; advances and saves the checkpoint in the same transaction. */
+    private int[] accrueChunk(int afterId, Timestamp asOf, JobCheckpoint checkpoint) {
+        List<Object[]> updates = new ArrayList<>();
+        int[] progress = {afterId, 0};
+        // Keyset over the partial index on open loan ids; only loans already past due qualify
+        jdbcTemplate.query(
+            "SELECT id, due_date, accrued_days FROM loan WHERE return_date IS NULL AND id > ? AND due_date < ? "
+            + "ORDER BY id LIMIT ?",
+            rs -> {
+                int id = rs.getInt("id");
+                int days = finePolicy.overdueDays(rs.getTimestamp("due_date"), asOf);
+                if (days != rs.getInt("accrued_days")) {
+                    updates.add(new Object[] {days, finePolicy.fineFor(days), id});
+                }
+                progress[0] = id;
+                progress[1]++;
+            },
+            afterId, asOf, chunkSize);
+
+        if (progress[1] > 0) {
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                    "UPDATE loan SET accrued_days = ?, accrued_fine = ? WHERE id = ? AND return_date IS NULL", updates);
+            }
+            checkpoint.setLastId(progress[0]);
+            checkpoint.setUpdatedAt(new Date());
+            checkpointRepository.save(checkpoint);
+        }
+        return new int[] {progress[1], updates.size()};
+    }
+}
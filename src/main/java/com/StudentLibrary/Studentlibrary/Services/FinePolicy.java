@@ -0,0 +1,51 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loan period and fine rules, read from books.max_allowed_days and books.fine.per_day.
+ * A loan accrues one day's fine for every full 24 hours past its due date.
+ */
+@Component
+public class FinePolicy {
+
+    @Value("${books.max_allowed_days}")
+    private int maxAllowedDays;
+
+    @Value("${books.fine.per_day}")
+    private int finePerDay;
+
+    public Date dueDateFor(Date issueDate) {
+        return new Date(issueDate.getTime() + TimeUnit.DAYS.toMillis(maxAllowedDays));
+    }
+
+    /** Latest issue time that is overdue at {@code now}. */
+    public Date overdueCutoff(Date now) {
+        return new Date(now.getTime() - TimeUnit.DAYS.toMillis(maxAllowedDays));
+    }
+
+    public int overdueDays(Date dueDate, Date at) {
+        long overdueMillis = at.getTime() - dueDate.getTime();
+        return overdueMillis > 0 ? (int) TimeUnit.MILLISECONDS.toDays(overdueMillis) : 0;
+    }
+
+    public int fineFor(int overdueDays) {
+        return overdueDays * finePerDay;
+    }
+
+    public int fineFor(Date dueDate, Date at) {
+        return fineFor(overdueDays(dueDate, at));
+    }
+
+    public int getMaxAllowedDays() {
+        return maxAllowedDays;
+    }
+
+    public int getFinePerDay() {
+        return finePerDay;
+    }
+}
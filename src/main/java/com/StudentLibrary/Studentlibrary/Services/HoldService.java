@@ -0,0 +1,343 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Model.Hold;
+import com.StudentLibrary.Studentlibrary.Model.HoldStatus;
+import com.StudentLibrary.Studentlibrary.Model.Student;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.Repositories.HoldRepository;
+import com.StudentLibrary.Studentlibrary.Repositories.StudentRepository;
+import com.StudentLibrary.Studentlibrary.dto.HoldPosition;
+import com.StudentLibrary.Studentlibrary.events.BookChangedEvent;
+import com.StudentLibrary.Studentlibrary.util.StripedLock;
+
+/**
+ * FIFO hold queues for books that are out. The book_hold table is the durable copy; each
+ * book's WAITING holds are mirrored in a lock-free in-memory queue so position checks and
+ * returns of books nobody is waiting for never touch the table. Queue changes happen under
+ * the book's lock stripe once the owning transaction commits.
+ */
+@Service
+public class HoldService {
+
+    private static final long EXPIRY_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StripedLock bookLocks;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${books.holds.pickup_hours}")
+    private int pickupHours;
+
+    @Value("${books.holds.max_per_student}")
+    private int maxHoldsPerStudent;
+
+    private final ConcurrentMap<Integer, ConcurrentLinkedQueue<QueuedHold>> queues = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadQueues() {
+        List<Hold> waiting = holdRepository.findByStatusOrderByIdAsc(HoldStatus.WAITING);
+        for (Hold hold : waiting) {
+            queueFor(hold.getBook().getId()).add(new QueuedHold(hold.getId(), hold.getStudent().getId()));
+        }
+        List<Hold> ready = holdRepository.findByStatusOrderByIdAsc(HoldStatus.READY);
+        for (Hold hold : ready) {
+            scheduleExpiry(hold.getId(), hold.getPickupExpiresAt());
+        }
+        System.out.println("Holds: Loaded " + waiting.size() + " waiting and " + ready.size() + " ready holds");
+    }
+
+    public HoldPosition placeHold(int studentId, int bookId) throws Exception {
+        Lock lock = bookLocks.get(bookId);
+        lock.lock();
+        try {
+            Book book = bookRepository.findById(bookId)
+                    .orElseThrow(() -> new Exception("Book not found with id: " + bookId));
+            Student student = studentRepository.findById(studentId)
+                    .orElseThrow(() -> new Exception("Student not found with id: " + studentId));
+
+            if (book.isAvailable()) {
+                throw new Exception("Book is available, issue it directly");
+            }
+            if (book.getStudent() != null && book.getStudent().getId() == studentId) {
+                throw new Exception("Book is already issued to this student");
+            }
+            if (holdRepository.findActiveHold(bookId, studentId).isPresent()) {
+                throw new Exception("Student already has a hold on this book");
+            }
+            if (holdRepository.countActiveHoldsByStudent(studentId) >= maxHoldsPerStudent) {
+                throw new Exception("Student has reached the maximum of " + maxHoldsPerStudent + " holds");
+            }
+
+            Hold hold = holdRepository.save(new Hold(book, student));
+            queueFor(bookId).add(new QueuedHold(hold.getId(), studentId));
+            System.out.println("Holds: Student " + studentId + " queued for book " + bookId);
+            return toPosition(hold, bookId, studentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancelHold(int studentId, int bookId) throws Exception {
+        Lock lock = bookLocks.get(bookId);
+        lock.lock();
+        try {
+            Hold hold = holdRepository.findActiveHold(bookId, studentId)
+                    .orElseThrow(() -> new Exception("No active hold for this student and book"));
+            boolean wasReady = hold.getStatus() == HoldStatus.READY;
+            transactionTemplate.executeWithoutResult(status -> {
+                hold.setStatus(HoldStatus.CANCELLED);
+                holdRepository.save(hold);
+                if (wasReady) {
+                    releaseHeldBook(bookId);
+                }
+            });
+            if (wasReady) {
+                // The book went back on the shelf or to the next student in line
+                catalogCache.invalidateBook(bookId);
+                eventPublisher.publishEvent(new BookChangedEvent(bookId, false));
+            }
+            removeFromQueue(bookId, hold.getId());
+            System.out.println("Holds: Student " + studentId + " cancelled hold on book " + bookId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Position of the student's active hold on a book, answered from memory while it is WAITING. */
+    public HoldPosition getPosition(int studentId, int bookId) throws Exception {
+        ConcurrentLinkedQueue<QueuedHold> queue = queues.get(bookId);
+        if (queue != null) {
+            int position = 0;
+            for (QueuedHold queued : queue) {
+                position++;
+                if (queued.studentId == studentId) {
+                    return new HoldPosition(queued.holdId, bookId, studentId, HoldStatus.WAITING, position,
+                            queue.size(), null);
+                }
+            }
+        }
+        // READY holds have already left the queue
+        Hold hold = holdRepository.findActiveHold(bookId, studentId)
+                .orElseThrow(() -> new Exception("No active hold for this student and book"));
+        return toPosition(hold, bookId, studentId);
+    }
+
+    public List<HoldPosition> getStudentHolds(int studentId) {
+        List<HoldPosition> positions = new ArrayList<>();
+        for (Hold hold : holdRepository.findActiveHoldsByStudent(studentId)) {
+            positions.add(toPosition(hold, hold.getBook().getId(), studentId));
+        }
+        return positions;
+    }
+
+    /** Whether the book is waiting on the shelf for this student to pick it up. */
+    public boolean isHeldFor(Book book, int studentId) {
+        return book.getStudent() == null
+                && book.getHoldStudentId() != null
+                && book.getHoldStudentId() == studentId
+                && (book.getHoldExpiresAt() == null || book.getHoldExpiresAt().after(new Date()));
+    }
+
+    /**
+     * Moves the first WAITING hold of each returned book to READY and returns them by book id.
+     * Must run in the return's transaction under the books' locks; the callers put the books
+     * on hold. Books with an empty in-memory queue are skipped without a query.
+     */
+    public Map<Integer, Hold> promoteNext(Collection<Integer> bookIds) {
+        Map<Integer, Hold> promoted = new HashMap<>();
+        List<Integer> queued = new ArrayList<>();
+        for (Integer bookId : bookIds) {
+            ConcurrentLinkedQueue<QueuedHold> queue = queues.get(bookId);
+            if (queue != null && !queue.isEmpty()) {
+                queued.add(bookId);
+            }
+        }
+        if (queued.isEmpty()) {
+            return promoted;
+        }
+
+        Date readyAt = new Date();
+        Date expiresAt = new Date(readyAt.getTime() + TimeUnit.HOURS.toMillis(pickupHours));
+        for (Hold hold : holdRepository.findNextWaiting(queued)) {
+            hold.setStatus(HoldStatus.READY);
+            hold.setReadyAt(readyAt);
+            hold.setPickupExpiresAt(expiresAt);
+            promoted.put(hold.getBook().getId(), hold);
+        }
+        holdRepository.saveAll(promoted.values());
+
+        afterCommit(() -> {
+            for (Map.Entry<Integer, Hold> entry : promoted.entrySet()) {
+                removeFromQueue(entry.getKey(), entry.getValue().getId());
+                scheduleExpiry(entry.getValue().getId(), expiresAt);
+            }
+        });
+        return promoted;
+    }
+
+    /** Marks the READY holds on books that were just issued to their holders as fulfilled. */
+    public void fulfil(Collection<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        List<Hold> ready = holdRepository.findReadyByBookIds(bookIds);
+        for (Hold hold : ready) {
+            hold.setStatus(HoldStatus.FULFILLED);
+        }
+        holdRepository.saveAll(ready);
+    }
+
+    private void expire(int holdId) {
+        try {
+            Hold hold = holdRepository.findById(holdId).orElse(null);
+            if (hold == null || hold.getStatus() != HoldStatus.READY) {
+                return;
+            }
+            int bookId = hold.getBook().getId();
+            Lock lock = bookLocks.get(bookId);
+            lock.lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Hold current = holdRepository.findById(holdId).orElse(null);
+                    if (current == null || current.getStatus() != HoldStatus.READY
+                            || current.getPickupExpiresAt().after(new Date())) {
+                        return;
+                    }
+                    current.setStatus(HoldStatus.EXPIRED);
+                    holdRepository.save(current);
+                    releaseHeldBook(bookId);
+                });
+                catalogCache.invalidateBook(bookId);
+                // The book may be back on the shelf
+                eventPublisher.publishEvent(new BookChangedEvent(bookId, false));
+            } finally {
+                lock.unlock();
+            }
+            System.out.println("Holds: Pickup window for hold " + holdId + " ended");
+        } catch (Exception e) {
+            System.err.println("Holds: Failed to expire hold " + holdId + ": " + e.getMessage());
+            scheduleExpiry(holdId, new Date(System.currentTimeMillis() + EXPIRY_RETRY_MILLIS));
+        }
+    }
+
+    /** Passes a book whose READY hold ended to the next waiting student, or back to the shelf. */
+    private void releaseHeldBook(int bookId) {
+        Book book = bookRepository.findById(bookId).orElse(null);
+        if (book == null || book.getStudent() != null) {
+            return;
+        }
+        Hold next = promoteNext(List.of(bookId)).get(bookId);
+        if (next != null) {
+            book.setHoldStudentId(next.getStudent().getId());
+            book.setHoldExpiresAt(next.getPickupExpiresAt());
+        } else {
+            book.setAvailable(true);
+            book.setHoldStudentId(null);
+            book.setHoldExpiresAt(null);
+        }
+        bookRepository.save(book);
+    }
+
+    private void scheduleExpiry(int holdId, Date expiresAt) {
+        taskScheduler.schedule(() -> expire(holdId), expiresAt);
+    }
+
+    private HoldPosition toPosition(Hold hold, int bookId, int studentId) {
+        if (hold.getStatus() == HoldStatus.READY) {
+            return new HoldPosition(hold.getId(), bookId, studentId, HoldStatus.READY, 0, 0, hold.getPickupExpiresAt());
+        }
+        ConcurrentLinkedQueue<QueuedHold> queue = queues.get(bookId);
+        int position = 0;
+        int length = 0;
+        if (queue != null) {
+            for (QueuedHold queued : queue) {
+                length++;
+                if (queued.holdId == hold.getId()) {
+                    position = length;
+                }
+            }
+        }
+        return new HoldPosition(hold.getId(), bookId, studentId, hold.getStatus(), position, length, null);
+    }
+
+    private ConcurrentLinkedQueue<QueuedHold> queueFor(int bookId) {
+        return queues.computeIfAbsent(bookId, id -> new ConcurrentLinkedQueue<>());
+    }
+
+    private void removeFromQueue(int bookId, int holdId) {
+        ConcurrentLinkedQueue<QueuedHold> queue = queues.get(bookId);
+        if (queue != null) {
+            queue.removeIf(queued -> queued.holdId == holdId);
+            if (queue.isEmpty()) {
+                queues.remove(bookId, queue);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class QueuedHold {
+        final int holdId;
+        final int studentId;
+
+        QueuedHold(int holdId, int studentId) {
+            this.holdId = holdId;
+            this.studentId = studentId;
+        }
+    }
+}
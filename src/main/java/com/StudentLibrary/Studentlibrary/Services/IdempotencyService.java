@@ -0,0 +1,110 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.StudentLibrary.Studentlibrary.Model.IdempotencyRecord;
+import com.StudentLibrary.Studentlibrary.Repositories.IdempotencyRecordRepository;
+import com.StudentLibrary.Studentlibrary.util.BoundedCache;
+
+/**
+ * Idempotency-Key handling for issue/return. Replays are answered from a bounded in-memory
+ * cache when possible; otherwise the key is claimed inside the operation's own transaction,
+ * where the idempotency_key primary key makes a second attempt with the same key a no-op.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String ISSUE = "ISSUE";
+    public static final String RETURN = "RETURN";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${books.idempotency.ttl_hours}")
+    private int ttlHours;
+
+    @Value("${books.idempotency.cache_size}")
+    private int cacheSize;
+
+    private BoundedCache<String, IdempotencyRecord> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new BoundedCache<>(cacheSize, TimeUnit.HOURS.toMillis(ttlHours));
+    }
+
+    /** Transaction id of an earlier request with this key if it is cached, otherwise null. */
+    public String findCached(String key, String operation, int studentId, int bookId) throws Exception {
+        if (key == null) {
+            return null;
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new Exception("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        IdempotencyRecord record = cache.get(key);
+        return record != null ? checkMatches(record, operation, studentId, bookId) : null;
+    }
+
+    /**
+     * Claims the key for a new operation; must run in the operation's transaction so the claim
+     * commits or rolls back with it. Returns false if the key is already recorded, after waiting
+     * for any in-flight transaction holding the same key to finish.
+     */
+    public boolean claim(String key, String operation, int studentId, int bookId, String transactionId) {
+        int inserted = jdbcTemplate.update(
+            "INSERT INTO idempotency_key (idempotency_key, operation, student_id, book_id, transaction_id, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (idempotency_key) DO NOTHING",
+            key, operation, studentId, bookId, transactionId, new Timestamp(System.currentTimeMillis()));
+        return inserted == 1;
+    }
+
+    /** Transaction id stored for a key whose claim failed. */
+    public String findRecorded(String key, String operation, int studentId, int bookId) throws Exception {
+        IdempotencyRecord record = repository.findById(key)
+                .orElseThrow(() -> new Exception("Request with this Idempotency-Key did not complete, please retry"));
+        cache.put(key, record);
+        return checkMatches(record, operation, studentId, bookId);
+    }
+
+    /** Caches the outcome of a committed operation so replays skip the database. */
+    public void remember(String key, String operation, int studentId, int bookId, String transactionId) {
+        if (key != null) {
+            cache.put(key, new IdempotencyRecord(key, operation, studentId, bookId, transactionId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${books.idempotency.cleanup_interval_ms}")
+    public void purgeExpired() {
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(ttlHours));
+            int deleted = repository.deleteCreatedBefore(cutoff);
+            if (deleted > 0) {
+                System.out.println("Idempotency: Purged " + deleted + " expired keys");
+            }
+        } catch (Exception e) {
+            System.err.println("Idempotency: Failed to purge expired keys: " + e.getMessage());
+        }
+    }
+
+    private String checkMatches(IdempotencyRecord record, String operation, int studentId, int bookId) throws Exception {
+        if (!record.matches(operation, studentId, bookId)) {
+            throw new Exception("Idempotency-Key was already used for a different request");
+        }
+        return record.getTransactionId();
+    }
+}
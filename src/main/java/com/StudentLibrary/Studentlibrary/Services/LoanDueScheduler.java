@@ -0,0 +1,167 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.StudentLibrary.Studentlibrary.events.LoanDueEvent;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.TimingWheel;
+
+/**
+ * Publishes {@link LoanDueEvent}s for open loans at their due-soon, due-today and overdue
+ * moments. Each loan has one pending timer in a timing wheel with one-minute ticks, for
+ * its next milestone. The wheel is filled from the open loans at startup and kept current
+ * from {@link LoanEvent}s, so nothing is scanned while running.
+ */
+@Component
+public class LoanDueScheduler {
+
+    private static final long TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final LoanDueEvent.Stage[] STAGES = LoanDueEvent.Stage.values();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${books.due.soon_hours}")
+    private int dueSoonHours;
+
+    @Value("${books.due.load_fetch_size}")
+    private int loadFetchSize;
+
+    private final TimingWheel wheel = new TimingWheel(tickOf(System.currentTimeMillis()));
+
+    // Returns seen while the startup load runs; the load may have scheduled them from its snapshot
+    private final Set<Integer> returnedDuringLoad = new HashSet<>();
+    private boolean loading = true;
+
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(loadFetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenLoans() {
+        long startTime = System.currentTimeMillis();
+        int nowTick = tickOf(startTime);
+        int[] loaded = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT id, due_date FROM loan WHERE return_date IS NULL");
+                ps.setFetchSize(loadFetchSize);
+                return ps;
+            }, rs -> {
+                scheduleNext(rs.getInt(1), tickOf(rs.getTimestamp(2).getTime()), 0, nowTick);
+                loaded[0]++;
+            }));
+        } catch (Exception e) {
+            System.err.println("DueScheduler: Failed to load open loans: " + e.getMessage());
+        } finally {
+            synchronized (returnedDuringLoad) {
+                loading = false;
+                for (int loanId : returnedDuringLoad) {
+                    wheel.cancel(loanId);
+                }
+                returnedDuringLoad.clear();
+            }
+        }
+        System.out.println("DueScheduler: Scheduled " + loaded[0] + " open loans (" + wheel.getSizeInBytes() / 1024
+                + " KB of timers) in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        if (event.getType() == LoanEvent.Type.ISSUED) {
+            scheduleNext(event.getLoanId(), tickOf(event.getDueDate().getTime()), 0,
+                    tickOf(System.currentTimeMillis()));
+            return;
+        }
+        synchronized (returnedDuringLoad) {
+            wheel.cancel(event.getLoanId());
+            if (loading) {
+                returnedDuringLoad.add(event.getLoanId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${books.due.check_interval_ms}")
+    public void tick() {
+        int fired = wheel.advanceTo(tickOf(System.currentTimeMillis()), (loanId, tick, dueTick, tag) -> {
+            LoanDueEvent.Stage stage = STAGES[tag];
+            try {
+                eventPublisher.publishEvent(new LoanDueEvent(loanId, stage, new Date(dueTick * TICK_MILLIS)));
+            } catch (Exception e) {
+                System.err.println("DueScheduler: Listener failed for loan " + loanId + ": " + e.getMessage());
+            }
+            scheduleNext(loanId, dueTick, stage.ordinal() + 1, tick);
+        });
+        if (fired > 0) {
+            System.out.println("DueScheduler: Fired " + fired + " due-date events, " + wheel.size() + " pending");
+        }
+    }
+
+    /** Loans with a pending due-date timer. */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    // Schedules the loan's first milestone from fromStage on that has not passed yet
+    private void scheduleNext(int loanId, int dueTick, int fromStage, int notBefore) {
+        for (int i = fromStage; i < STAGES.length; i++) {
+            int stageTick = stageTick(STAGES[i], dueTick);
+            boolean supersededByLater = i + 1 < STAGES.length && stageTick(STAGES[i + 1], dueTick) <= stageTick;
+            if (stageTick >= notBefore && !supersededByLater) {
+                wheel.schedule(loanId, stageTick, dueTick, (byte) i);
+                return;
+            }
+        }
+    }
+
+    private int stageTick(LoanDueEvent.Stage stage, int dueTick) {
+        switch (stage) {
+            case DUE_SOON:
+                return dueTick - (int) TimeUnit.HOURS.toMinutes(dueSoonHours);
+            case DUE_TODAY:
+                long startOfDay = Instant.ofEpochMilli(dueTick * TICK_MILLIS).atZone(ZoneId.systemDefault())
+                        .toLocalDate().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                return tickOf(startOfDay);
+            default:
+                return dueTick;
+        }
+    }
+
+    private static int tickOf(long epochMillis) {
+        return (int) (epochMillis / TICK_MILLIS);
+    }
+}
@@ -0,0 +1,199 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.StudentLibrary.Studentlibrary.Model.JobCheckpoint;
+import com.StudentLibrary.Studentlibrary.Repositories.JobCheckpointRepository;
+import com.StudentLibrary.Studentlibrary.Repositories.ReturnRollupRepository;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.StripedCounter;
+
+/**
+ * On-time return statistics from the return_daily_rollup table. Committed returns bump
+ * striped in-memory counters for their day, which are added to the table periodically;
+ * reads combine the table with the unflushed counters, so results are exact and cost
+ * O(days). At startup the last flushed days are recomputed from the transaction table to
+ * recover counts a crash may have lost.
+ */
+@Service
+public class ReturnStatsService {
+
+    // On time means returned no later than the due date. Returns recorded before the loan
+    // ledger existed have no loan row; their due date is derived from the matching issue.
+    private static final String REBUILD_SQL = "INSERT INTO return_daily_rollup (day, returns, on_time_returns, total_fine) "
+            + "SELECT CAST(r.returned_at AS date), count(*), count(*) FILTER (WHERE r.returned_at <= r.due_date), "
+            + "COALESCE(sum(r.fine_amount), 0) "
+            + "FROM (SELECT t.transaction_date AS returned_at, t.fine_amount, COALESCE(l.due_date, "
+            + "(SELECT max(i.transaction_date) FROM transaction i WHERE i.book_id = t.book_id "
+            + "AND i.student_id = t.student_id AND i.is_issue_operation = true AND i.transaction_status = 'SUCCESSFUL' "
+            + "AND i.transaction_date <= t.transaction_date) + CAST(? AS integer) * interval '1 day') AS due_date "
+            + "FROM transaction t LEFT JOIN loan l ON l.return_transaction_id = CAST(t.transaction_id AS text) "
+            + "WHERE t.is_issue_operation = false AND t.transaction_status = 'SUCCESSFUL' "
+            + "AND t.transaction_date >= ? AND t.transaction_date < ?) r "
+            + "GROUP BY CAST(r.returned_at AS date) "
+            + "ON CONFLICT (day) DO UPDATE SET returns = EXCLUDED.returns, "
+            + "on_time_returns = EXCLUDED.on_time_returns, total_fine = EXCLUDED.total_fine";
+
+    // Recorded once the rollups have been recounted with the due-date definition
+    private static final String DUE_DATE_ROLLUPS = "return-rollup-due-date";
+
+    private static final String FLUSH_SQL = "INSERT INTO return_daily_rollup (day, returns, on_time_returns, total_fine) "
+            + "VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (day) DO UPDATE SET returns = return_daily_rollup.returns + EXCLUDED.returns, "
+            + "on_time_returns = return_daily_rollup.on_time_returns + EXCLUDED.on_time_returns, "
+            + "total_fine = return_daily_rollup.total_fine + EXCLUDED.total_fine";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReturnRollupRepository rollupRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Value("${books.returns.counter_stripes}")
+    private int counterStripes;
+
+    private final ConcurrentMap<LocalDate, DayCounters> pending = new ConcurrentHashMap<>();
+
+    // Flushes and reads take this so a read never sees counts both in memory and in the table
+    private final Object flushLock = new Object();
+
+    // Returns before this instant are covered by the startup rebuild
+    private volatile long countingFrom = Long.MAX_VALUE;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildRecentDays() {
+        long cutoff = System.currentTimeMillis();
+        try {
+            LocalDate lastDay = rollupRepository.findLastDay();
+            // An empty table is a first run, and rows written before on-time meant "by the due
+            // date" need recounting: either way backfill the whole history once
+            JobCheckpoint dueDateRollups = checkpointRepository.findById(DUE_DATE_ROLLUPS).orElse(null);
+            boolean backfill = lastDay == null || dueDateRollups == null;
+            LocalDate from = backfill ? LocalDate.of(1970, 1, 1) : lastDay.minusDays(1);
+            countingFrom = cutoff;
+            int days = jdbcTemplate.update(REBUILD_SQL, finePolicy.getMaxAllowedDays(),
+                    Timestamp.valueOf(from.atStartOfDay()), new Timestamp(cutoff));
+            if (dueDateRollups == null) {
+                dueDateRollups = new JobCheckpoint(DUE_DATE_ROLLUPS);
+                dueDateRollups.setRunDate(LocalDate.now());
+                dueDateRollups.setCompleted(true);
+                dueDateRollups.setUpdatedAt(new Timestamp(cutoff));
+                checkpointRepository.save(dueDateRollups);
+            }
+            System.out.println("ReturnStats: Rebuilt " + days + " daily rollups since " + from);
+        } catch (Exception e) {
+            countingFrom = cutoff;
+            System.err.println("ReturnStats: Failed to rebuild daily rollups: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        if (event.getType() != LoanEvent.Type.RETURNED || event.getOccurredAt().getTime() < countingFrom) {
+            return;
+        }
+        LocalDate day = event.getOccurredAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        DayCounters counters = pending.computeIfAbsent(day, d -> new DayCounters(counterStripes));
+        counters.returns.add(1);
+        // Compared directly: the fine rounds down to whole days and can be waived or zero-rated
+        if (!event.getOccurredAt().after(event.getDueDate())) {
+            counters.onTimeReturns.add(1);
+        }
+        counters.totalFine.add(event.getFineAmount());
+    }
+
+    @Scheduled(fixedDelayString = "${books.returns.rollup_flush_ms}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<Object[]> rows = new ArrayList<>();
+            List<DayCounters> drained = new ArrayList<>();
+            for (Map.Entry<LocalDate, DayCounters> entry : pending.entrySet()) {
+                DayCounters counters = entry.getValue();
+                long returns = counters.returns.drain();
+                long onTime = counters.onTimeReturns.drain();
+                long fine = counters.totalFine.drain();
+                if (returns != 0 || onTime != 0 || fine != 0) {
+                    rows.add(new Object[] {Date.valueOf(entry.getKey()), returns, onTime, fine});
+                    drained.add(counters);
+                }
+            }
+            if (!rows.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+                } catch (Exception e) {
+                    System.err.println("ReturnStats: Failed to flush daily rollups: " + e.getMessage());
+                    for (int i = 0; i < rows.size(); i++) {
+                        Object[] row = rows.get(i);
+                        drained.get(i).returns.add((Long) row[1]);
+                        drained.get(i).onTimeReturns.add((Long) row[2]);
+                        drained.get(i).totalFine.add((Long) row[3]);
+                    }
+                    return;
+                }
+            }
+            // Late commits can still land on yesterday; older days are done
+            LocalDate keepFrom = LocalDate.now().minusDays(1);
+            pending.keySet().removeIf(day -> day.isBefore(keepFrom));
+        }
+    }
+
+    /**
+     * Percentage of returns made by their due date, over the trailing {@code days}
+     * days including today, or over all time when {@code days} is 0. Returns 0 when there
+     * were no returns.
+     */
+    public double getOnTimePercentage(int days) {
+        LocalDate from = days > 0 ? LocalDate.now().minusDays(days - 1) : null;
+        long returns;
+        long onTime;
+        synchronized (flushLock) {
+            ReturnRollupRepository.Totals totals = from == null
+                    ? rollupRepository.findTotals()
+                    : rollupRepository.findTotalsSince(from);
+            returns = totals.getReturns();
+            onTime = totals.getOnTimeReturns();
+            for (Map.Entry<LocalDate, DayCounters> entry : pending.entrySet()) {
+                if (from == null || !entry.getKey().isBefore(from)) {
+                    returns += entry.getValue().returns.sum();
+                    onTime += entry.getValue().onTimeReturns.sum();
+                }
+            }
+        }
+        return returns == 0 ? 0 : (double) onTime / returns * 100;
+    }
+
+    private static final class DayCounters {
+        final StripedCounter returns;
+        final StripedCounter onTimeReturns;
+        final StripedCounter totalFine;
+
+        DayCounters(int stripes) {
+            returns = new StripedCounter(stripes);
+            onTimeReturns = new StripedCounter(stripes);
+            totalFine = new StripedCounter(stripes);
+        }
+    }
+}
@@ -70,7 +70,13 @@ public class StudentService {
     }
 
     public Student updateStudent(Student student) {
-        return studentRepository.save(student);
+        // Copy onto the managed row so the version check applies to the stored state
+        Student existing = getStudentById(student.getId());
+        existing.setName(student.getName());
+        existing.setEmailId(student.getEmailId());
+        existing.setAge(student.getAge());
+        existing.setCountry(student.getCountry());
+        return studentRepository.save(existing);
     }
 
     @Transactional
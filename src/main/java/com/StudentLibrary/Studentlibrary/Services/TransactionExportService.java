@@ -0,0 +1,207 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams circulation history to an output stream as NDJSON or CSV. Rows are read through a
+ * forward-only JDBC cursor (PostgreSQL only honours the fetch size inside a transaction) and
+ * written as they arrive, so memory use does not depend on the number of rows exported.
+ */
+@Service
+public class TransactionExportService {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final String[] COLUMNS = {
+        "transactionId", "transactionDate", "operation", "status", "fineAmount",
+        "studentId", "studentName", "bookId", "bookName"
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${transactions.export.fetch_size}")
+    private int fetchSize;
+
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes every transaction matching the filters, oldest first. {@code to} is inclusive;
+     * null filters are ignored. Returns the number of rows written.
+     */
+    public long export(Format format, LocalDate from, LocalDate to, Integer studentId, Integer bookId,
+            OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+            "SELECT t.transaction_id, t.transaction_date, t.is_issue_operation, t.transaction_status, t.fine_amount, "
+            + "t.student_id, s.name AS student_name, t.book_id, b.name AS book_name "
+            + "FROM transaction t LEFT JOIN student s ON s.id = t.student_id LEFT JOIN book b ON b.id = t.book_id "
+            + "WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND t.transaction_date >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND t.transaction_date < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (studentId != null) {
+            sql.append(" AND t.student_id = ?");
+            args.add(studentId);
+        }
+        if (bookId != null) {
+            sql.append(" AND t.book_id = ?");
+            args.add(bookId);
+        }
+        sql.append(" ORDER BY t.transaction_date, t.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] count = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                cursorTemplate.query(sql.toString(), rs -> {
+                    try {
+                        rowWriter.write(rs);
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed by the rollback
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+        System.out.println("Export: Wrote " + count[0] + " transactions as " + format);
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            JsonFactory factory = objectMapper.getFactory();
+            this.generator = factory.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Records are separated by the newline written after each one
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField(COLUMNS[0], rs.getString("transaction_id"));
+            Timestamp date = rs.getTimestamp("transaction_date");
+            generator.writeStringField(COLUMNS[1], date != null ? date.toInstant().toString() : null);
+            generator.writeStringField(COLUMNS[2], rs.getBoolean("is_issue_operation") ? "ISSUE" : "RETURN");
+            generator.writeStringField(COLUMNS[3], rs.getString("transaction_status"));
+            generator.writeNumberField(COLUMNS[4], rs.getInt("fine_amount"));
+            generator.writeNumberField(COLUMNS[5], rs.getInt("student_id"));
+            generator.writeStringField(COLUMNS[6], rs.getString("student_name"));
+            generator.writeNumberField(COLUMNS[7], rs.getInt("book_id"));
+            generator.writeStringField(COLUMNS[8], rs.getString("book_name"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            Timestamp date = rs.getTimestamp("transaction_date");
+            field(rs.getString("transaction_id"), true);
+            field(date != null ? date.toInstant().toString() : null, true);
+            field(rs.getBoolean("is_issue_operation") ? "ISSUE" : "RETURN", true);
+            field(rs.getString("transaction_status"), true);
+            field(String.valueOf(rs.getInt("fine_amount")), true);
+            field(String.valueOf(rs.getInt("student_id")), true);
+            field(rs.getString("student_name"), true);
+            field(String.valueOf(rs.getInt("book_id")), true);
+            field(rs.getString("book_name"), false);
+            writer.write("\r\n");
+        }
+
+        private void field(String value, boolean more) throws IOException {
+            if (value != null) {
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            if (more) {
+                writer.write(',');
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the transaction table range-partitioned by month on transaction_date (PostgreSQL).
+ *
+ * <p>The one-off conversion is an explicit migration ({@link #migrate()}, run by an admin
+ * through POST /admin/transactions/partitioning/migrate), never part of startup. It renames the
+ * existing table to {@code transaction_legacy} and attaches it, without copying rows, as the
+ * partition for everything before the first monthly partition. Once the table is partitioned,
+ * startup and the nightly job create partitions ahead of time and, when configured, detach
+ * partitions older than the retention window into the archive schema.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TransactionPartitionManager implements CommandLineRunner {
+
+    private static final String PARENT = "transaction";
+    private static final String LEGACY = "transaction_legacy";
+    // Built concurrently before the swap and promoted to the legacy partition's primary key
+    private static final String NEW_KEY_INDEX = PARENT + "_id_date_key";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern INDEX_TARGET = Pattern.compile(" ON (\\S+\\.)?" + PARENT + " USING ");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([0-9]{4}-[0-9]{2}-[0-9]{2})");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${transactions.partitioning.enabled}")
+    private boolean enabled;
+
+    @Value("${transactions.partitioning.months_ahead}")
+    private int monthsAhead;
+
+    @Value("${transactions.partitioning.archive_after_months}")
+    private int archiveAfterMonths;
+
+    @Value("${transactions.partitioning.archive_schema}")
+    private String archiveSchema;
+
+    @Value("${transactions.partitioning.detach_concurrently}")
+    private boolean detachConcurrently;
+
+    @Value("${transactions.partitioning.lock_timeout}")
+    private String lockTimeout;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        if (!isPartitioned()) {
+            System.out.println("Partitioning: " + PARENT + " is not partitioned yet; "
+                + "run POST /admin/transactions/partitioning/migrate to convert it");
+            return;
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${transactions.partitioning.cron}")
+    public void maintainPartitions() {
+        if (!enabled || !isPartitioned()) {
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+            if (archiveAfterMonths > 0) {
+                archiveOldPartitions();
+            }
+        } catch (Exception e) {
+            System.err.println("Partitioning: Maintenance failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+            "SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+            + "WHERE c.relname = ? AND n.nspname = current_schema()", String.class, PARENT);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    /**
+     * Converts the plain table to a partitioned one and creates the upcoming partitions. The
+     * scans happen first, while reads and writes continue: validating the legacy range CHECK
+     * and building the (id, transaction_date) key index concurrently. The swap itself then only
+     * changes the catalog, under an ACCESS EXCLUSIVE lock bounded by {@code lock_timeout}; if
+     * the lock cannot be had in time nothing is changed and the migration can be rerun.
+     */
+    public synchronized String migrate() {
+        if (isPartitioned()) {
+            throw new IllegalStateException(PARENT + " is already partitioned");
+        }
+        long start = System.currentTimeMillis();
+        LocalDate cutoff = prepareLegacyTable();
+        swapInPartitionedParent(cutoff);
+        createUpcomingPartitions();
+        String message = "Converted " + PARENT + " to a partitioned table; existing rows kept in " + LEGACY
+            + " (before " + cutoff + ")";
+        System.out.println("Partitioning: " + message + " in " + (System.currentTimeMillis() - start) + " ms");
+        return message;
+    }
+
+    /**
+     * Runs outside any transaction (CREATE INDEX CONCURRENTLY requires it) and takes no lock
+     * that blocks reads or writes for longer than a catalog update. Returns the upper bound of
+     * the legacy partition, which the validated CHECK now guarantees for every row.
+     */
+    private LocalDate prepareLegacyTable() {
+        jdbcTemplate.update("UPDATE " + PARENT + " SET transaction_date = 'epoch' WHERE transaction_date IS NULL");
+
+        LocalDate cutoff = YearMonth.now().plusMonths(1).atDay(1);
+        LocalDate latest = jdbcTemplate.queryForObject(
+            "SELECT max(transaction_date)::date FROM " + PARENT, LocalDate.class);
+        if (latest != null && !latest.isBefore(cutoff)) {
+            cutoff = YearMonth.from(latest).plusMonths(1).atDay(1);
+        }
+
+        // NOT VALID applies to new rows at once; VALIDATE scans under a lock that lets DML through
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " DROP CONSTRAINT IF EXISTS " + LEGACY + "_range");
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " ADD CONSTRAINT " + LEGACY + "_range CHECK "
+            + "(transaction_date IS NOT NULL AND transaction_date < '" + cutoff + "') NOT VALID");
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " VALIDATE CONSTRAINT " + LEGACY + "_range");
+
+        // An interrupted earlier run can leave an invalid index behind
+        List<Boolean> valid = jdbcTemplate.queryForList(
+            "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+            + "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relname = ? AND n.nspname = current_schema()",
+            Boolean.class, NEW_KEY_INDEX);
+        if (!valid.isEmpty() && !valid.get(0)) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY " + NEW_KEY_INDEX);
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + NEW_KEY_INDEX + " ON " + PARENT
+            + " (id, transaction_date)");
+        return cutoff;
+    }
+
+    /**
+     * Swaps the plain table for a partitioned parent in one DDL transaction. Every step reuses
+     * what {@link #prepareLegacyTable} built: SET NOT NULL and ATTACH are proven by the validated
+     * CHECK, the new primary key adopts the prebuilt index, and the secondary indexes are kept.
+     */
+    private void swapInPartitionedParent(LocalDate cutoff) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout + "'");
+            jdbcTemplate.execute("LOCK TABLE " + PARENT + " IN ACCESS EXCLUSIVE MODE");
+
+            String sequence = jdbcTemplate.queryForObject(
+                "SELECT pg_get_serial_sequence(?, 'id')", String.class, PARENT);
+            List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS def FROM pg_constraint "
+                + "WHERE conrelid = ?::regclass AND contype = 'f'", PARENT);
+            List<Map<String, Object>> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname, indexdef FROM pg_indexes WHERE schemaname = current_schema() AND tablename = ? "
+                + "AND indexname NOT IN (?, ?)", PARENT, PARENT + "_pkey", NEW_KEY_INDEX);
+
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ALTER COLUMN transaction_date SET NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DROP CONSTRAINT IF EXISTS " + PARENT + "_pkey");
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ADD CONSTRAINT " + LEGACY + "_pkey PRIMARY KEY USING INDEX "
+                + NEW_KEY_INDEX);
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " RENAME TO " + LEGACY);
+            for (Map<String, Object> index : indexes) {
+                jdbcTemplate.execute("ALTER INDEX " + index.get("indexname") + " RENAME TO " + index.get("indexname") + "_legacy");
+            }
+
+            jdbcTemplate.execute("CREATE TABLE " + PARENT + " (LIKE " + LEGACY + " INCLUDING DEFAULTS) "
+                + "PARTITION BY RANGE (transaction_date)");
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ADD PRIMARY KEY (id, transaction_date)");
+            if (sequence != null) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + PARENT + ".id");
+            }
+            for (Map<String, Object> index : indexes) {
+                // Same definition on the still-empty parent; ATTACH adopts the renamed copy on the old table
+                String definition = (String) index.get("indexdef");
+                jdbcTemplate.execute(INDEX_TARGET.matcher(definition).replaceFirst(" ON " + PARENT + " USING "));
+            }
+            for (Map<String, Object> foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " ADD CONSTRAINT " + foreignKey.get("conname")
+                    + " " + foreignKey.get("def"));
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + LEGACY
+                + " FOR VALUES FROM (MINVALUE) TO ('" + cutoff + "')");
+        });
+    }
+
+    private void createUpcomingPartitions() {
+        LocalDate coveredUntil = highestUpperBound();
+        YearMonth month = coveredUntil != null ? YearMonth.from(coveredUntil) : YearMonth.now();
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+        while (!month.isAfter(last)) {
+            String name = PARENT + "_p" + month.format(PARTITION_SUFFIX);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            month = month.plusMonths(1);
+        }
+    }
+
+    /**
+     * Detaches partitions whose whole range is older than the retention window and moves them to
+     * the archive schema. DETACH ... CONCURRENTLY (PostgreSQL 14+) only takes a brief lock on the
+     * parent, so inserts into the hot partitions are not blocked.
+     */
+    private void archiveOldPartitions() {
+        LocalDate archiveBefore = YearMonth.now().minusMonths(archiveAfterMonths).atDay(1);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+        for (Map<String, Object> partition : listPartitions()) {
+            LocalDate upper = upperBound((String) partition.get("bound"));
+            String name = (String) partition.get("name");
+            if (upper == null || upper.isAfter(archiveBefore)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name
+                + (detachConcurrently ? " CONCURRENTLY" : ""));
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+            System.out.println("Partitioning: Archived " + name + " (before " + upper + ") to schema " + archiveSchema);
+        }
+    }
+
+    private List<Map<String, Object>> listPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound "
+            + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = ?::regclass ORDER BY c.relname", PARENT);
+    }
+
+    private LocalDate highestUpperBound() {
+        LocalDate highest = null;
+        for (Map<String, Object> partition : listPartitions()) {
+            LocalDate upper = upperBound((String) partition.get("bound"));
+            if (upper != null && (highest == null || upper.isAfter(highest))) {
+                highest = upper;
+            }
+        }
+        return highest;
+    }
+
+    private static LocalDate upperBound(String bound) {
+        Matcher matcher = UPPER_BOUND.matcher(bound);
+        return matcher.find() ? LocalDate.parse(matcher.group(1)) : null;
+    }
+}
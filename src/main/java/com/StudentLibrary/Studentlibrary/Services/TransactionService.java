@@ -1,25 +1,50 @@
 package com.StudentLibrary.Studentlibrary.Services;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Model.Hold;
+import com.StudentLibrary.Studentlibrary.Model.Loan;
 import com.StudentLibrary.Studentlibrary.Model.Student;
 import com.StudentLibrary.Studentlibrary.Model.Transaction;
 import com.StudentLibrary.Studentlibrary.Model.TransactionStatus;
 import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.Repositories.LoanRepository;
 import com.StudentLibrary.Studentlibrary.Repositories.StudentRepository;
 import com.StudentLibrary.Studentlibrary.Repositories.TransactionRepository;
+import com.StudentLibrary.Studentlibrary.dto.CirculationRequest;
+import com.StudentLibrary.Studentlibrary.dto.CirculationResult;
+import com.StudentLibrary.Studentlibrary.dto.TransactionPage;
+import com.StudentLibrary.Studentlibrary.events.LoanEvent;
+import com.StudentLibrary.Studentlibrary.util.KeysetCursor;
+import com.StudentLibrary.Studentlibrary.util.StripedLock;
+import com.StudentLibrary.Studentlibrary.util.UuidV7;
 
 @Service
 public class TransactionService {
@@ -33,26 +58,89 @@ public class TransactionService {
     @Autowired
     private StudentRepository studentRepository;
     
-    private static final int MAX_ALLOWED_BOOKS = 3;
-    private static final int FINE_PER_DAY = 5;
+    @Autowired
+    private LoanRepository loanRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private FinePolicy finePolicy;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private HoldService holdService;
+    
+    @Autowired
+    private StripedLock bookLocks;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ReturnStatsService returnStatsService;
+    
+    private static final int MAX_OVERDUE_PAGE_SIZE = 500;
+    private static final String INSERT_TRANSACTION_SQL = "INSERT INTO transaction "
+            + "(transaction_id, student_id, book_id, fine_amount, is_issue_operation, transaction_status, transaction_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+    
+    @Value("${books.max_allowed}")
+    private int maxAllowedBooks;
+    
+    @Value("${transactions.page.default_size}")
+    private int defaultPageSize;
+    
+    @Value("${transactions.page.max_size}")
+    private int maxPageSize;
+    
+    @Value("${transactions.page.recent_window_days}")
+    private int recentWindowDays;
+    
+    @Value("${books.concurrency.max_retries}")
+    private int maxRetries;
+    
+    @Value("${books.concurrency.backoff_ms}")
+    private long backoffMillis;
     
-    @Transactional
     public String issueBooks(int studentId, int bookId) throws Exception {
+        return issueBooks(studentId, bookId, null);
+    }
+    
+    /**
+     * Issues a book. With an idempotency key, a retry of a request that already committed
+     * returns the original transaction id instead of issuing again.
+     */
+    public String issueBooks(int studentId, int bookId, String idempotencyKey) throws Exception {
+        return runIdempotent(idempotencyKey, IdempotencyService.ISSUE, studentId, bookId,
+                transactionId -> doIssueBook(studentId, bookId, transactionId));
+    }
+    
+    private String doIssueBook(int studentId, int bookId, UUID transactionId) throws Exception {
         // Check if book is available
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new Exception("Book not found with id: " + bookId));
         
-        if (!book.isAvailable()) {
-            throw new Exception("Book is not available for issue");
+        boolean heldForStudent = holdService.isHeldFor(book, studentId);
+        if (!book.isAvailable() && !heldForStudent) {
+            throw new Exception(book.getHoldStudentId() != null
+                ? "Book is on hold for another student"
+                : "Book is not available for issue");
         }
         
         // Check if student exists
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new Exception("Student not found with id: " + studentId));
         
-        // Check if student has reached max allowed books
-        List<Book> issuedBooks = student.getBooks();
-        if (issuedBooks != null && issuedBooks.size() >= MAX_ALLOWED_BOOKS) {
+        // Take a loan slot; the conditional update enforces the quota atomically
+        if (studentRepository.reserveLoanSlot(studentId, maxAllowedBooks) == 0) {
             throw new Exception("Student has already issued maximum allowed books");
         }
         
@@ -62,21 +150,74 @@ public class TransactionService {
         transaction.setStudent(student);
         transaction.setIsIssueOperation(true);
         transaction.setTransactionStatus(TransactionStatus.SUCCESSFUL);
-        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setTransactionId(transactionId);
         
         // Update book status
         book.setAvailable(false);
         book.setStudent(student);
+        if (heldForStudent) {
+            book.setHoldStudentId(null);
+            book.setHoldExpiresAt(null);
+            holdService.fulfil(List.of(bookId));
+        }
         bookRepository.save(book);
         
         // Save transaction
         transactionRepository.save(transaction);
         
-        return transaction.getTransactionId();
+        // Open the loan; returns close this row instead of searching the history
+        Date issueDate = new Date();
+        Date dueDate = finePolicy.dueDateFor(issueDate);
+        Loan loan = loanRepository.save(new Loan(book, student, transactionId.toString(), issueDate, dueDate));
+        eventPublisher.publishEvent(new LoanEvent(LoanEvent.Type.ISSUED, loan.getId(), bookId, studentId, dueDate,
+                issueDate, 0));
+        
+        return transactionId.toString();
     }
     
-    @Transactional
     public String returnBooks(int studentId, int bookId) throws Exception {
+        return returnBooks(studentId, bookId, null);
+    }
+    
+    public String returnBooks(int studentId, int bookId, String idempotencyKey) throws Exception {
+        return runIdempotent(idempotencyKey, IdempotencyService.RETURN, studentId, bookId,
+                transactionId -> doReturnBook(studentId, bookId, transactionId));
+    }
+    
+    /**
+     * Runs one issue/return under the book's lock stripe with optimistic retries. When a key is
+     * given it is claimed in the same transaction, so the operation runs at most once per key.
+     */
+    private String runIdempotent(String idempotencyKey, String operation, int studentId, int bookId,
+            CirculationStep step) throws Exception {
+        String replayed = idempotencyService.findCached(idempotencyKey, operation, studentId, bookId);
+        if (replayed != null) {
+            return replayed;
+        }
+        
+        // Same-book requests queue on the stripe instead of failing their version check
+        Lock lock = bookLocks.get(bookId);
+        lock.lock();
+        try {
+            String transactionId = withOptimisticRetry(() -> {
+                UUID newTransactionId = UuidV7.generate();
+                if (idempotencyKey != null && !idempotencyService.claim(idempotencyKey, operation, studentId, bookId,
+                        newTransactionId.toString())) {
+                    return null;
+                }
+                return step.apply(newTransactionId);
+            });
+            if (transactionId == null) {
+                return idempotencyService.findRecorded(idempotencyKey, operation, studentId, bookId);
+            }
+            idempotencyService.remember(idempotencyKey, operation, studentId, bookId, transactionId);
+            return transactionId;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private String doReturnBook(int studentId, int bookId, UUID transactionId) throws Exception {
         // Check if book exists
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new Exception("Book not found with id: " + bookId));
@@ -90,27 +231,13 @@ public class TransactionService {
             throw new Exception("This book was not issued to this student");
         }
         
-        // Find the issue transaction
-        List<Transaction> transactions = transactionRepository.findByBookAndStudentAndIsIssueOperationTrueOrderByTransactionDateDesc(
-                book, student, PageRequest.of(0, 1));
-        
-        if (transactions.isEmpty()) {
-            throw new Exception("No issue transaction found for this book and student");
-        }
-        
-        Transaction issueTransaction = transactions.get(0);
+        // Find the open loan
+        Loan loan = loanRepository.findOpenLoan(bookId, studentId)
+                .orElseThrow(() -> new Exception("No open loan found for this book and student"));
         
         // Calculate fine
-        Date issueDate = issueTransaction.getTransactionDate();
         Date returnDate = new Date();
-        
-        long diffInMillies = returnDate.getTime() - issueDate.getTime();
-        long diffInDays = TimeUnit.DAYS.convert(diffInMillies, TimeUnit.MILLISECONDS);
-        
-        int fine = 0;
-        if (diffInDays > 15) { // Assuming 15 days is the standard issue period
-            fine = (int) ((diffInDays - 15) * FINE_PER_DAY);
-        }
+        int fine = finePolicy.fineFor(loan.getDueDate(), returnDate);
         
         // Create return transaction
         Transaction returnTransaction = new Transaction();
@@ -119,38 +246,349 @@ public class TransactionService {
         returnTransaction.setIsIssueOperation(false);
         returnTransaction.setTransactionStatus(TransactionStatus.SUCCESSFUL);
         returnTransaction.setFineAmount(fine);
-        returnTransaction.setTransactionId(UUID.randomUUID().toString());
+        returnTransaction.setTransactionId(transactionId);
         
-        // Update book status
-        book.setAvailable(true);
+        // Update book status; the first student waiting for it gets it held for pickup
+        Hold nextHold = holdService.promoteNext(List.of(bookId)).get(bookId);
         book.setStudent(null);
+        book.setAvailable(nextHold == null);
+        book.setHoldStudentId(nextHold != null ? nextHold.getStudent().getId() : null);
+        book.setHoldExpiresAt(nextHold != null ? nextHold.getPickupExpiresAt() : null);
         bookRepository.save(book);
         
         // Save transaction
         transactionRepository.save(returnTransaction);
         
-        return returnTransaction.getTransactionId();
+        // Close the loan
+        loan.setReturnDate(returnDate);
+        loan.setFineAmount(fine);
+        loan.setReturnTransactionId(transactionId.toString());
+        loanRepository.save(loan);
+        studentRepository.releaseLoanSlot(studentId);
+        eventPublisher.publishEvent(new LoanEvent(LoanEvent.Type.RETURNED, loan.getId(), bookId, studentId, loan.getDueDate(),
+                returnTransaction.getTransactionDate(), fine));
+        
+        return transactionId.toString();
     }
     
-    public List<Transaction> getAllTransactions() {
+    /**
+     * Issues several books in one database transaction. Books and students (with their
+     * active loan counters) are loaded with one query each, and the book updates, transaction rows and loan
+     * rows are written as JDBC batches. Items that fail validation are reported individually
+     * and do not affect the rest of the batch.
+     */
+    public List<CirculationResult> issueBatch(List<CirculationRequest> requests) throws Exception {
+        List<Lock> locks = lockBooks(requests);
         try {
-            System.out.println("Service: Getting all transactions");
-            List<Transaction> transactions = transactionRepository.findAll(
-                Sort.by(Sort.Direction.DESC, "transactionDate")
-            );
-            System.out.println("Service: Found " + transactions.size() + " transactions");
-            return transactions;
+            return withOptimisticRetry(() -> doIssueBatch(requests));
+        } finally {
+            unlockAll(locks);
+        }
+    }
+    
+    private List<CirculationResult> doIssueBatch(List<CirculationRequest> requests) {
+        System.out.println("Service: Issuing batch of " + requests.size() + " items");
+        Map<Integer, Book> books = loadBooks(requests);
+        Map<Integer, Student> students = loadStudents(requests);
+        
+        Map<Integer, Integer> slotsTaken = new HashMap<>();
+        
+        List<CirculationResult> results = new ArrayList<>();
+        List<Object[]> bookUpdates = new ArrayList<>();
+        List<Object[]> transactionInserts = new ArrayList<>();
+        List<Object[]> loanInserts = new ArrayList<>();
+        Set<Integer> claimedBooks = new HashSet<>();
+        List<Integer> heldBooks = new ArrayList<>();
+        
+        Timestamp issueDate = new Timestamp(System.currentTimeMillis());
+        Timestamp dueDate = new Timestamp(finePolicy.dueDateFor(issueDate).getTime());
+        
+        for (CirculationRequest request : requests) {
+            Book book = books.get(request.getBookId());
+            Student student = students.get(request.getStudentId());
+            if (book == null) {
+                results.add(CirculationResult.failed(request, "Book not found with id: " + request.getBookId()));
+                continue;
+            }
+            if (student == null) {
+                results.add(CirculationResult.failed(request, "Student not found with id: " + request.getStudentId()));
+                continue;
+            }
+            boolean heldForStudent = holdService.isHeldFor(book, student.getId());
+            if (!(book.isAvailable() || heldForStudent) || !claimedBooks.add(book.getId())) {
+                results.add(CirculationResult.failed(request, "Book is not available for issue"));
+                continue;
+            }
+            int taken = slotsTaken.getOrDefault(student.getId(), 0);
+            if (student.getActiveLoanCount() + taken >= maxAllowedBooks) {
+                claimedBooks.remove(book.getId());
+                results.add(CirculationResult.failed(request, "Student has already issued maximum allowed books"));
+                continue;
+            }
+            slotsTaken.put(student.getId(), taken + 1);
+            if (heldForStudent) {
+                heldBooks.add(book.getId());
+            }
+            
+            UUID transactionId = UuidV7.generate();
+            bookUpdates.add(new Object[] {student.getId(), book.getId(), student.getId()});
+            transactionInserts.add(new Object[] {transactionId, student.getId(), book.getId(), 0, true,
+                    TransactionStatus.SUCCESSFUL.name(), issueDate});
+            loanInserts.add(new Object[] {book.getId(), student.getId(), transactionId.toString(), issueDate, dueDate});
+            results.add(CirculationResult.succeeded(request, transactionId.toString()));
+        }
+        
+        if (!bookUpdates.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(
+                    "UPDATE book SET available = false, student_id = ?, hold_student_id = NULL, hold_expires_at = NULL, "
+                    + "version = version + 1 WHERE id = ? AND (available = true OR hold_student_id = ?)",
+                    bookUpdates);
+            checkAllUpdated(updated);
+            holdService.fulfil(heldBooks);
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactionInserts);
+            jdbcTemplate.batchUpdate("INSERT INTO loan (book_id, student_id, issue_transaction_id, issue_date, due_date, fine_amount) "
+                    + "VALUES (?, ?, ?, ?, ?, 0)", loanInserts);
+            
+            // Counters were read with the students; a concurrent issue elsewhere makes this miss and retry
+            List<Object[]> counterUpdates = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : slotsTaken.entrySet()) {
+                counterUpdates.add(new Object[] {entry.getValue(), entry.getKey(), entry.getValue(), maxAllowedBooks});
+            }
+            checkAllUpdated(jdbcTemplate.batchUpdate(
+                    "UPDATE student SET active_loan_count = active_loan_count + ? WHERE id = ? AND active_loan_count + ? <= ?",
+                    counterUpdates));
+            
+            // Loan ids come from the database, so read back the rows just inserted
+            for (Loan loan : loanRepository.findOpenLoansByBookIds(claimedBooks)) {
+                eventPublisher.publishEvent(new LoanEvent(LoanEvent.Type.ISSUED, loan.getId(), loan.getBook().getId(),
+                        loan.getStudent().getId(), loan.getDueDate(), issueDate, 0));
+            }
+        }
+        System.out.println("Service: Issued " + bookUpdates.size() + " of " + requests.size() + " batch items");
+        return results;
+    }
+    
+    /**
+     * Returns several books in one database transaction, mirroring {@link #issueBatch(List)}.
+     */
+    public List<CirculationResult> returnBatch(List<CirculationRequest> requests) throws Exception {
+        List<Lock> locks = lockBooks(requests);
+        try {
+            return withOptimisticRetry(() -> doReturnBatch(requests));
+        } finally {
+            unlockAll(locks);
+        }
+    }
+    
+    private List<CirculationResult> doReturnBatch(List<CirculationRequest> requests) {
+        System.out.println("Service: Returning batch of " + requests.size() + " items");
+        Map<Integer, Book> books = loadBooks(requests);
+        Map<Integer, Student> students = loadStudents(requests);
+        
+        Map<Integer, Loan> openLoans = new HashMap<>();
+        if (!books.isEmpty()) {
+            for (Loan loan : loanRepository.findOpenLoansByBookIds(books.keySet())) {
+                openLoans.put(loan.getBook().getId(), loan);
+            }
+        }
+        
+        List<CirculationResult> results = new ArrayList<>();
+        List<Object[]> bookUpdates = new ArrayList<>();
+        List<Object[]> transactionInserts = new ArrayList<>();
+        List<Object[]> loanUpdates = new ArrayList<>();
+        Map<Integer, Integer> slotsReleased = new HashMap<>();
+        List<Integer> returnedBooks = new ArrayList<>();
+        List<Loan> returnedLoans = new ArrayList<>();
+        List<Integer> returnedFines = new ArrayList<>();
+        
+        Date returnDate = new Date();
+        Timestamp returnTimestamp = new Timestamp(returnDate.getTime());
+        
+        for (CirculationRequest request : requests) {
+            Book book = books.get(request.getBookId());
+            if (book == null) {
+                results.add(CirculationResult.failed(request, "Book not found with id: " + request.getBookId()));
+                continue;
+            }
+            if (!students.containsKey(request.getStudentId())) {
+                results.add(CirculationResult.failed(request, "Student not found with id: " + request.getStudentId()));
+                continue;
+            }
+            Loan loan = openLoans.get(book.getId());
+            if (loan == null || loan.getStudent().getId() != request.getStudentId()) {
+                results.add(CirculationResult.failed(request, "This book was not issued to this student"));
+                continue;
+            }
+            // A book listed twice in the same batch is only returned once
+            openLoans.remove(book.getId());
+            
+            int fine = finePolicy.fineFor(loan.getDueDate(), returnDate);
+            UUID transactionId = UuidV7.generate();
+            returnedBooks.add(book.getId());
+            transactionInserts.add(new Object[] {transactionId, request.getStudentId(), book.getId(), fine, false,
+                    TransactionStatus.SUCCESSFUL.name(), returnTimestamp});
+            loanUpdates.add(new Object[] {returnTimestamp, fine, transactionId.toString(), loan.getId()});
+            returnedLoans.add(loan);
+            returnedFines.add(fine);
+            slotsReleased.merge(request.getStudentId(), 1, Integer::sum);
+            
+            CirculationResult result = CirculationResult.succeeded(request, transactionId.toString());
+            result.setFineAmount(fine);
+            results.add(result);
+        }
+        
+        // Returned books with a hold queue go on hold for the next student instead of the shelf
+        Map<Integer, Hold> nextHolds = holdService.promoteNext(returnedBooks);
+        for (Integer bookId : returnedBooks) {
+            Hold hold = nextHolds.get(bookId);
+            bookUpdates.add(hold == null
+                ? new Object[] {true, null, null, bookId}
+                : new Object[] {false, hold.getStudent().getId(), new Timestamp(hold.getPickupExpiresAt().getTime()), bookId});
+        }
+        
+        if (!bookUpdates.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(
+                    "UPDATE book SET available = ?, student_id = NULL, hold_student_id = ?, hold_expires_at = ?, "
+                    + "version = version + 1 WHERE id = ? AND available = false",
+                    bookUpdates);
+            checkAllUpdated(updated);
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactionInserts);
+            jdbcTemplate.batchUpdate("UPDATE loan SET return_date = ?, fine_amount = ?, return_transaction_id = ? WHERE id = ?", loanUpdates);
+            
+            List<Object[]> counterUpdates = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : slotsReleased.entrySet()) {
+                counterUpdates.add(new Object[] {entry.getValue(), entry.getKey()});
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE student SET active_loan_count = GREATEST(active_loan_count - ?, 0) WHERE id = ?",
+                    counterUpdates);
+            
+            for (int i = 0; i < returnedLoans.size(); i++) {
+                Loan loan = returnedLoans.get(i);
+                eventPublisher.publishEvent(new LoanEvent(LoanEvent.Type.RETURNED, loan.getId(), loan.getBook().getId(),
+                        loan.getStudent().getId(), loan.getDueDate(), returnTimestamp, returnedFines.get(i)));
+            }
+        }
+        System.out.println("Service: Returned " + bookUpdates.size() + " of " + requests.size() + " batch items");
+        return results;
+    }
+    
+    private Map<Integer, Book> loadBooks(List<CirculationRequest> requests) {
+        Set<Integer> ids = new HashSet<>();
+        for (CirculationRequest request : requests) {
+            ids.add(request.getBookId());
+        }
+        Map<Integer, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            books.put(book.getId(), book);
+        }
+        return books;
+    }
+    
+    private Map<Integer, Student> loadStudents(List<CirculationRequest> requests) {
+        Set<Integer> ids = new HashSet<>();
+        for (CirculationRequest request : requests) {
+            ids.add(request.getStudentId());
+        }
+        Map<Integer, Student> students = new HashMap<>();
+        for (Student student : studentRepository.findAllById(ids)) {
+            students.put(student.getId(), student);
+        }
+        return students;
+    }
+    
+    /**
+     * Runs {@code work} in its own transaction, retrying with exponential backoff and jitter
+     * when the commit fails on a version check or lock conflict. Checked exceptions thrown by
+     * {@code work} roll back the transaction and are rethrown unchanged.
+     */
+    private <T> T withOptimisticRetry(Callable<T> work) throws Exception {
+        int attempt = 0;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    try {
+                        return work.call();
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new CheckedFailure(e);
+                    }
+                });
+            } catch (CheckedFailure e) {
+                throw (Exception) e.getCause();
+            } catch (ConcurrencyFailureException e) {
+                attempt++;
+                if (attempt >= maxRetries) {
+                    System.err.println("Service: Giving up after " + attempt + " concurrent update conflicts");
+                    throw new Exception("The book or student was updated concurrently, please retry");
+                }
+                long backoff = Math.min(backoffMillis << (attempt - 1), MAX_BACKOFF_MILLIS);
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+            }
+        }
+    }
+    
+    private List<Lock> lockBooks(List<CirculationRequest> requests) {
+        Set<Integer> bookIds = new HashSet<>();
+        for (CirculationRequest request : requests) {
+            bookIds.add(request.getBookId());
+        }
+        List<Lock> locks = bookLocks.getAll(bookIds);
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+        return locks;
+    }
+    
+    private void unlockAll(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+    
+    private void checkAllUpdated(int[] counts) {
+        for (int count : counts) {
+            if (count == 0) {
+                throw new OptimisticLockingFailureException("Book changed by another node during batch");
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface CirculationStep {
+        String apply(UUID transactionId) throws Exception;
+    }
+    
+    /** Carries a checked exception out of a {@link TransactionTemplate} callback. */
+    private static class CheckedFailure extends RuntimeException {
+        CheckedFailure(Exception cause) {
+            super(cause);
+        }
+    }
+    
+    public TransactionPage getAllTransactions(String cursor, int size) {
+        try {
+            System.out.println("Service: Getting transactions page, size: " + size);
+            Pageable page = keysetPage(size);
+            KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+            List<Transaction> transactions = recentFirst(after, page, since -> after == null
+                ? transactionRepository.findPage(since, page)
+                : transactionRepository.findPageAfter(since, after.getDate(), after.getId(), page));
+            return toPage(transactions, page.getPageSize() - 1);
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Service: Error fetching all transactions: " + e.getMessage());
+            System.err.println("Service: Error fetching transactions page: " + e.getMessage());
             e.printStackTrace();
-            return new ArrayList<>();
+            return new TransactionPage(new ArrayList<>(), null);
         }
     }
     
     public Transaction getTransactionById(String transactionId) {
         try {
             System.out.println("Service: Getting transaction by ID: " + transactionId);
-            Optional<Transaction> transaction = transactionRepository.findByTransactionId(transactionId);
+            Optional<Transaction> transaction = findByPublicId(transactionId);
             if (transaction.isPresent()) {
                 System.out.println("Service: Found transaction with ID: " + transactionId);
                 return transaction.get();
@@ -165,60 +603,60 @@ public class TransactionService {
         }
     }
     
-    public List<Transaction> getTransactionsByCardId(int cardId) {
+    /**
+     * Looks up a transaction by its public id. Time-ordered ids carry their creation time, so
+     * the probe is first limited to the surrounding days; older random ids and anything the
+     * narrow probe misses fall back to the plain index lookup.
+     */
+    private Optional<Transaction> findByPublicId(String transactionId) {
+        UUID id;
         try {
-            System.out.println("Service: Getting transactions for card ID: " + cardId);
-            // In a real implementation, you would query by card ID
-            // For now, we'll get transactions by student ID (assuming card ID = student ID)
-            Optional<Student> student = studentRepository.findById(cardId);
-            if (student.isPresent()) {
-                List<Transaction> transactions = transactionRepository.findByStudent(
-                    student.get(),
-                    Sort.by(Sort.Direction.DESC, "transactionDate")
-                );
-                System.out.println("Service: Found " + transactions.size() + " transactions for card ID: " + cardId);
-                return transactions;
-            } else {
-                System.out.println("Service: No student found with ID: " + cardId);
-                return new ArrayList<>();
+            id = UUID.fromString(transactionId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        long createdAt = UuidV7.timestampOf(id);
+        if (createdAt > 0) {
+            long slack = TimeUnit.DAYS.toMillis(1);
+            Optional<Transaction> transaction = transactionRepository.findByTransactionIdBetween(
+                    id, new Date(createdAt - slack), new Date(createdAt + slack));
+            if (transaction.isPresent()) {
+                return transaction;
             }
+        }
+        return transactionRepository.findByTransactionId(id);
+    }
+    
+    public TransactionPage getTransactionsByCardId(int cardId, String cursor, int size) {
+        try {
+            System.out.println("Service: Getting transactions page for card ID: " + cardId);
+            // Card ID is the student ID
+            Pageable page = keysetPage(size);
+            KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+            List<Transaction> transactions = recentFirst(after, page, since -> after == null
+                ? transactionRepository.findStudentPage(cardId, since, page)
+                : transactionRepository.findStudentPageAfter(cardId, since, after.getDate(), after.getId(), page));
+            return toPage(transactions, page.getPageSize() - 1);
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Service: Error fetching transactions by card ID: " + e.getMessage());
             e.printStackTrace();
-            return new ArrayList<>();
+            return new TransactionPage(new ArrayList<>(), null);
         }
     }
     
-    public List<Transaction> getOverdueTransactions() {
+    public List<Transaction> getOverdueTransactions(int page, int size) {
         try {
-            System.out.println("Service: Getting overdue transactions");
-            // In a real implementation, you would query for transactions where:
-            // 1. It's an issue transaction
-            // 2. No corresponding return transaction exists
-            // 3. Issue date is more than X days ago
+            System.out.println("Service: Getting overdue transactions, page: " + page + ", size: " + size);
+            int pageSize = Math.min(Math.max(size, 1), MAX_OVERDUE_PAGE_SIZE);
+            Date dueBefore = finePolicy.overdueCutoff(new Date());
             
-            // For now, return a subset of all transactions as a placeholder
-            List<Transaction> allTransactions = transactionRepository.findByIsIssueOperationTrue(
-                Sort.by(Sort.Direction.DESC, "transactionDate")
+            // Single anti-join: issue rows past the loan period with no later return for the same pair
+            List<Transaction> overdueTransactions = transactionRepository.findOverdueIssues(
+                dueBefore, PageRequest.of(Math.max(page, 0), pageSize)
             );
             
-            // Filter to only include transactions older than 15 days
-            Date fifteenDaysAgo = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(15));
-            List<Transaction> overdueTransactions = new ArrayList<>();
-            
-            for (Transaction transaction : allTransactions) {
-                if (transaction.getTransactionDate().before(fifteenDaysAgo)) {
-                    // Check if there's no return transaction
-                    boolean hasReturnTransaction = transactionRepository.existsByBookAndStudentAndIsIssueOperationFalse(
-                        transaction.getBook(), transaction.getStudent()
-                    );
-                    
-                    if (!hasReturnTransaction) {
-                        overdueTransactions.add(transaction);
-                    }
-                }
-            }
-            
             System.out.println("Service: Found " + overdueTransactions.size() + " overdue transactions");
             return overdueTransactions;
         } catch (Exception e) {
@@ -228,22 +666,51 @@ public class TransactionService {
         }
     }
     
-    public List<Transaction> getTransactionsByBookId(int bookId) {
+    public TransactionPage getTransactionsByBookId(int bookId, String cursor, int size) {
         try {
-            System.out.println("Fetching transactions for book ID: " + bookId);
-            Book book = bookRepository.findById(bookId)
-                    .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
-            
-            List<Transaction> transactions = transactionRepository.findByBook(book, 
-                Sort.by(Sort.Direction.DESC, "transactionDate"));
-            
-            System.out.println("Found " + transactions.size() + " transactions for book ID: " + bookId);
-            return transactions;
+            System.out.println("Fetching transactions page for book ID: " + bookId);
+            Pageable page = keysetPage(size);
+            KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+            List<Transaction> transactions = recentFirst(after, page, since -> after == null
+                ? transactionRepository.findBookPage(bookId, since, page)
+                : transactionRepository.findBookPageAfter(bookId, since, after.getDate(), after.getId(), page));
+            return toPage(transactions, page.getPageSize() - 1);
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error fetching transactions for book: " + e.getMessage());
             e.printStackTrace();
-            return new ArrayList<>();
+            return new TransactionPage(new ArrayList<>(), null);
+        }
+    }
+    
+    /** Requests one row more than the page size so the last page can be detected without a count. */
+    private Pageable keysetPage(int size) {
+        int pageSize = size > 0 ? Math.min(size, maxPageSize) : defaultPageSize;
+        return PageRequest.of(0, pageSize + 1);
+    }
+    
+    /**
+     * Runs a history page query over the {@code recent_window_days} before the cursor (or now)
+     * first, so a partitioned table only visits the newest partitions, and repeats it over the
+     * whole history only when the window cannot fill the page.
+     */
+    private List<Transaction> recentFirst(KeysetCursor after, Pageable page, Function<Date, List<Transaction>> query) {
+        long upper = after != null ? after.getDate().getTime() : System.currentTimeMillis();
+        List<Transaction> rows = query.apply(new Date(upper - TimeUnit.DAYS.toMillis(recentWindowDays)));
+        if (rows.size() >= page.getPageSize()) {
+            return rows;
+        }
+        return query.apply(new Date(0));
+    }
+    
+    private TransactionPage toPage(List<Transaction> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
         }
+        List<Transaction> items = new ArrayList<>(rows.subList(0, pageSize));
+        Transaction last = items.get(pageSize - 1);
+        return new TransactionPage(items, new KeysetCursor(last.getTransactionDate(), last.getId()).encode());
     }
     
     public int getTotalTransactionsCount() {
@@ -275,14 +742,14 @@ public class TransactionService {
     }
     
     public double getOnTimeReturnsPercentage() {
+        return getOnTimeReturnsPercentage(0);
+    }
+    
+    /** On-time share of returns over the trailing {@code days} days, or all time for 0. */
+    public double getOnTimeReturnsPercentage(int days) {
         try {
-            System.out.println("Service: Calculating on-time returns percentage");
-            // This is a simplified implementation
-            // In a real application, you would calculate based on return dates vs due dates
-            
-            // For now, return a fixed value
-            // In a real implementation, you would query the database to get this information
-            double percentage = 92.0;
+            System.out.println("Service: Calculating on-time returns percentage, days: " + days);
+            double percentage = returnStatsService.getOnTimePercentage(days);
             System.out.println("Service: On-time returns percentage: " + percentage + "%");
             return percentage;
         } catch (Exception e) {
@@ -0,0 +1,190 @@
+package com.StudentLibrary.Studentlibrary.bootstrap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.StudentLibrary.Studentlibrary.util.ContentAddressedStore;
+
+/**
+ * Applies the schema pieces Hibernate's ddl-auto=update cannot express (partial indexes,
+ * check constraints) and one-off backfills. Every statement is idempotent so this runs
+ * on each startup, after Hibernate has created or updated the tables.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SchemaInitializer implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContentAddressedStore coverStore;
+
+    @Value("${books.max_allowed_days}")
+    private int maxAllowedDays;
+
+    @Override
+    public void run(String... args) throws Exception {
+        execute(List.of(
+            // At most one open loan per book; also the O(1) lookup for returns
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_loan_open_book ON loan (book_id) WHERE return_date IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_loan_open_student ON loan (student_id) WHERE return_date IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_loan_open_due ON loan (due_date) WHERE return_date IS NULL",
+            // Keyset order for the fine accrual job
+            "CREATE INDEX IF NOT EXISTS idx_loan_open_id ON loan (id) WHERE return_date IS NULL",
+            // One active hold per student and book
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_book_hold_active ON book_hold (book_id, student_id) "
+                + "WHERE status IN ('WAITING', 'READY')",
+            "DO $$ BEGIN "
+                + "ALTER TABLE student ADD CONSTRAINT ck_student_active_loans CHECK (active_loan_count >= 0); "
+                + "EXCEPTION WHEN duplicate_object THEN NULL; END $$"
+        ));
+        convertTransactionIdToUuid();
+        backfillOpenLoans();
+        reconcileActiveLoanCounts();
+        moveCoverImagesToStore();
+    }
+
+    private void execute(List<String> statements) {
+        for (String sql : statements) {
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (Exception e) {
+                System.err.println("Schema: Failed to apply statement: " + sql);
+                System.err.println("Schema: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Converts transaction.transaction_id from varchar to a native uuid column, keeping every
+     * existing id. Values that do not parse as UUIDs (none are expected) get a stable
+     * md5-derived id rather than failing the migration.
+     */
+    private void convertTransactionIdToUuid() {
+        try {
+            List<String> types = jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns WHERE table_schema = current_schema() "
+                + "AND table_name = 'transaction' AND column_name = 'transaction_id'", String.class);
+            if (types.isEmpty() || "uuid".equals(types.get(0))) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            jdbcTemplate.execute("ALTER TABLE transaction ALTER COLUMN transaction_id TYPE uuid USING "
+                + "CASE WHEN transaction_id ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$' "
+                + "THEN transaction_id::uuid ELSE md5(COALESCE(transaction_id, id::text))::uuid END");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_transaction_transaction_id "
+                + "ON transaction (transaction_id, transaction_date)");
+            System.out.println("Schema: Converted transaction.transaction_id to uuid in "
+                + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Schema: Failed to convert transaction ids to uuid: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates loan rows for books that were issued before the loan ledger existed,
+     * using the latest unreturned issue transaction of each checked-out book.
+     */
+    private void backfillOpenLoans() {
+        try {
+            int created = jdbcTemplate.update(
+                "INSERT INTO loan (book_id, student_id, issue_transaction_id, issue_date, due_date, fine_amount) "
+                + "SELECT DISTINCT ON (t.book_id) t.book_id, t.student_id, t.transaction_id, t.transaction_date, "
+                + "t.transaction_date + make_interval(days => ?), 0 "
+                + "FROM transaction t JOIN book b ON b.id = t.book_id AND b.student_id = t.student_id AND b.available = false "
+                + "WHERE t.is_issue_operation = true "
+                + "AND NOT EXISTS (SELECT 1 FROM transaction r WHERE r.book_id = t.book_id AND r.student_id = t.student_id "
+                + "AND r.is_issue_operation = false AND r.transaction_date >= t.transaction_date) "
+                + "AND NOT EXISTS (SELECT 1 FROM loan l WHERE l.book_id = t.book_id AND l.return_date IS NULL) "
+                + "ORDER BY t.book_id, t.transaction_date DESC",
+                maxAllowedDays);
+            if (created > 0) {
+                System.out.println("Schema: Backfilled " + created + " open loans from transaction history");
+            }
+        } catch (Exception e) {
+            System.err.println("Schema: Failed to backfill open loans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Brings Student.activeLoanCount in line with the open loans, for rows written before the
+     * counter existed or by anything that bypassed the service layer.
+     */
+    private void reconcileActiveLoanCounts() {
+        try {
+            int fixed = jdbcTemplate.update(
+                "UPDATE student s SET active_loan_count = c.open_loans FROM ("
+                + "SELECT st.id, (SELECT count(*) FROM loan l WHERE l.student_id = st.id AND l.return_date IS NULL) AS open_loans "
+                + "FROM student st) c "
+                + "WHERE c.id = s.id AND s.active_loan_count <> c.open_loans");
+            if (fixed > 0) {
+                System.out.println("Schema: Reconciled active loan count for " + fixed + " students");
+            }
+        } catch (Exception e) {
+            System.err.println("Schema: Failed to reconcile active loan counts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves cover images from the old book.cover_image bytea column into the cover store, one
+     * book at a time so only one image is in memory, and drops the column once it is empty.
+     * A crash part way leaves the remaining rows for the next startup; files already stored
+     * are simply found again by hash.
+     */
+    private void moveCoverImagesToStore() {
+        try {
+            Integer columns = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns WHERE table_schema = current_schema() "
+                + "AND table_name = 'book' AND column_name = 'cover_image'", Integer.class);
+            if (columns == null || columns == 0) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            List<Integer> bookIds = jdbcTemplate.queryForList(
+                "SELECT id FROM book WHERE cover_image IS NOT NULL ORDER BY id", Integer.class);
+            int moved = 0;
+            for (int bookId : bookIds) {
+                ContentAddressedStore.StoredBlob cover = jdbcTemplate.query(
+                    "SELECT cover_image FROM book WHERE id = ?",
+                    rs -> {
+                        if (!rs.next()) {
+                            return null;
+                        }
+                        try (InputStream in = rs.getBinaryStream(1)) {
+                            return in == null ? null : coverStore.store(in);
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Failed to store cover of book " + bookId, e);
+                        }
+                    },
+                    bookId);
+                if (cover == null) {
+                    continue;
+                }
+                if (cover.getSize() > 0) {
+                    jdbcTemplate.update(
+                        "UPDATE book SET cover_hash = ?, cover_size = ?, cover_content_type = ?, cover_image = NULL WHERE id = ?",
+                        cover.getHash(), cover.getSize(),
+                        cover.getImageType() != null ? cover.getImageType() : "image/jpeg", bookId);
+                } else {
+                    jdbcTemplate.update("UPDATE book SET cover_image = NULL WHERE id = ?", bookId);
+                }
+                moved++;
+            }
+            jdbcTemplate.execute("ALTER TABLE book DROP COLUMN cover_image");
+            System.out.println("Schema: Moved " + moved + " cover images to the cover store in "
+                + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Schema: Failed to move cover images to the cover store: " + e.getMessage());
+        }
+    }
+}
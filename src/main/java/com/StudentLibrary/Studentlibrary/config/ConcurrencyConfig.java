@@ -0,0 +1,17 @@
+package com.StudentLibrary.Studentlibrary.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.StudentLibrary.Studentlibrary.util.StripedLock;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    /** Per-book locks shared by every service that changes a book's circulation state. */
+    @Bean
+    public StripedLock bookLocks(@Value("${books.concurrency.lock_stripes}") int lockStripes) {
+        return new StripedLock(lockStripes);
+    }
+}
@@ -0,0 +1,20 @@
+package com.StudentLibrary.Studentlibrary.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.StudentLibrary.Studentlibrary.util.ContentAddressedStore;
+
+@Configuration
+public class StorageConfig {
+
+    /** Book cover images, stored once per distinct content. */
+    @Bean
+    public ContentAddressedStore coverStore(@Value("${books.covers.dir}") String directory) throws IOException {
+        return new ContentAddressedStore(Paths.get(directory));
+    }
+}
@@ -0,0 +1,68 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.List;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+
+/**
+ * One page of full-text search results, best match first. {@code total} is the number of
+ * books matching at least one query term.
+ */
+public class BookSearchPage {
+    private String query;
+    private int page;
+    private int size;
+    private int total;
+    private List<Book> items;
+
+    public BookSearchPage() {
+    }
+
+    public BookSearchPage(String query, int page, int size, int total, List<Book> items) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.items = items;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public List<Book> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Book> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,88 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+
+/**
+ * A catalog row: the book columns a listing shows, read straight from a JPQL constructor
+ * expression without loading the Book or Author entities.
+ */
+public class BookSummary {
+    private int id;
+    private String name;
+    private Genre genre;
+    private String authorName;
+    private boolean available;
+    private Integer publishedYear;
+    private boolean hasImage;
+
+    public BookSummary() {
+    }
+
+    // Takes the cover hash rather than a flag so the query needs no CASE expression
+    public BookSummary(int id, String name, Genre genre, String authorName, boolean available,
+            Integer publishedYear, String coverHash) {
+        this.id = id;
+        this.name = name;
+        this.genre = genre;
+        this.authorName = authorName;
+        this.available = available;
+        this.publishedYear = publishedYear;
+        this.hasImage = coverHash != null;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Genre getGenre() {
+        return genre;
+    }
+
+    public void setGenre(Genre genre) {
+        this.genre = genre;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public Integer getPublishedYear() {
+        return publishedYear;
+    }
+
+    public void setPublishedYear(Integer publishedYear) {
+        this.publishedYear = publishedYear;
+    }
+
+    public boolean isHasImage() {
+        return hasImage;
+    }
+
+    public void setHasImage(boolean hasImage) {
+        this.hasImage = hasImage;
+    }
+}
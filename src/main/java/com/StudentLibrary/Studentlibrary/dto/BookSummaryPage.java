@@ -0,0 +1,36 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.List;
+
+/**
+ * One page of the catalog listing in id order. Pass {@code nextCursor} back as
+ * {@code cursor} to get the following page; it is null on the last page.
+ */
+public class BookSummaryPage {
+    private List<BookSummary> items;
+    private String nextCursor;
+
+    public BookSummaryPage() {
+    }
+
+    public BookSummaryPage(List<BookSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BookSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,33 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+/**
+ * One (studentId, bookId) pair of a batch issue or return request.
+ */
+public class CirculationRequest {
+    private int studentId;
+    private int bookId;
+
+    public CirculationRequest() {
+    }
+
+    public CirculationRequest(int studentId, int bookId) {
+        this.studentId = studentId;
+        this.bookId = bookId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(int bookId) {
+        this.bookId = bookId;
+    }
+}
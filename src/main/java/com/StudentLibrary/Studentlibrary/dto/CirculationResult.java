@@ -0,0 +1,83 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+/**
+ * Outcome of one item of a batch issue or return. Either {@code transactionId}
+ * or {@code error} is set.
+ */
+public class CirculationResult {
+    private int studentId;
+    private int bookId;
+    private boolean success;
+    private String transactionId;
+    private Integer fineAmount;
+    private String error;
+
+    public CirculationResult() {
+    }
+
+    public static CirculationResult succeeded(CirculationRequest request, String transactionId) {
+        CirculationResult result = new CirculationResult();
+        result.studentId = request.getStudentId();
+        result.bookId = request.getBookId();
+        result.success = true;
+        result.transactionId = transactionId;
+        return result;
+    }
+
+    public static CirculationResult failed(CirculationRequest request, String error) {
+        CirculationResult result = new CirculationResult();
+        result.studentId = request.getStudentId();
+        result.bookId = request.getBookId();
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(int bookId) {
+        this.bookId = bookId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Integer getFineAmount() {
+        return fineAmount;
+    }
+
+    public void setFineAmount(Integer fineAmount) {
+        this.fineAmount = fineAmount;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,90 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.List;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+
+/**
+ * One page of books matching a genre/author/availability filter, in id order, with facet
+ * counts. Each facet's counts apply every filter except that facet's own, so they show
+ * what choosing another value would return.
+ */
+public class FacetPage {
+    private int page;
+    private int size;
+    private int total;
+    private List<Book> items;
+    private List<FacetCount> genres;
+    private List<FacetCount> availability;
+    private List<FacetCount> authors;
+
+    public FacetPage() {
+    }
+
+    public FacetPage(int page, int size, int total, List<Book> items, List<FacetCount> genres,
+            List<FacetCount> availability, List<FacetCount> authors) {
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.items = items;
+        this.genres = genres;
+        this.availability = availability;
+        this.authors = authors;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public List<Book> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Book> items) {
+        this.items = items;
+    }
+
+    public List<FacetCount> getGenres() {
+        return genres;
+    }
+
+    public void setGenres(List<FacetCount> genres) {
+        this.genres = genres;
+    }
+
+    public List<FacetCount> getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(List<FacetCount> availability) {
+        this.availability = availability;
+    }
+
+    public List<FacetCount> getAuthors() {
+        return authors;
+    }
+
+    public void setAuthors(List<FacetCount> authors) {
+        this.authors = authors;
+    }
+}
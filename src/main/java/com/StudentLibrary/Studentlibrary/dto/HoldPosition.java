@@ -0,0 +1,89 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.Date;
+
+import com.StudentLibrary.Studentlibrary.Model.HoldStatus;
+
+/**
+ * Where a student stands in a book's hold queue. {@code position} is 1 for the next student
+ * in line and 0 once the book is READY for pickup, until {@code pickupExpiresAt}.
+ */
+public class HoldPosition {
+    private int holdId;
+    private int bookId;
+    private int studentId;
+    private HoldStatus status;
+    private int position;
+    private int queueLength;
+    private Date pickupExpiresAt;
+
+    public HoldPosition() {
+    }
+
+    public HoldPosition(int holdId, int bookId, int studentId, HoldStatus status, int position, int queueLength,
+            Date pickupExpiresAt) {
+        this.holdId = holdId;
+        this.bookId = bookId;
+        this.studentId = studentId;
+        this.status = status;
+        this.position = position;
+        this.queueLength = queueLength;
+        this.pickupExpiresAt = pickupExpiresAt;
+    }
+
+    public int getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(int holdId) {
+        this.holdId = holdId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(int bookId) {
+        this.bookId = bookId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HoldStatus status) {
+        this.status = status;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    public void setQueueLength(int queueLength) {
+        this.queueLength = queueLength;
+    }
+
+    public Date getPickupExpiresAt() {
+        return pickupExpiresAt;
+    }
+
+    public void setPickupExpiresAt(Date pickupExpiresAt) {
+        this.pickupExpiresAt = pickupExpiresAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+/**
+ * A record a bulk import skipped: the input line it started on and why it was rejected.
+ */
+public class ImportReject {
+    private long line;
+    private String reason;
+
+    public ImportReject() {
+    }
+
+    public ImportReject(long line, String reason) {
+        this.line = line;
+        this.reason = reason;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
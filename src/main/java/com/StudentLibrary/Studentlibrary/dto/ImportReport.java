@@ -0,0 +1,111 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress and outcome of a bulk catalog import. The importing thread updates the counters
+ * as batches commit, so a report read while the import runs shows its progress. Only the
+ * first rejects are listed; {@code rejected} counts all of them.
+ */
+public class ImportReport {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String importId;
+    private final String format;
+    private final Date startedAt = new Date();
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+    private volatile long elapsedMs;
+    private volatile long recordsRead;
+    private volatile long booksInserted;
+    private volatile long authorsCreated;
+    private volatile long rejected;
+    private final List<ImportReject> rejects = new CopyOnWriteArrayList<>();
+
+    public ImportReport(String importId, String format) {
+        this.importId = importId;
+        this.format = format;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getElapsedMs() {
+        return status == Status.RUNNING ? System.currentTimeMillis() - startedAt.getTime() : elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public void setRecordsRead(long recordsRead) {
+        this.recordsRead = recordsRead;
+    }
+
+    public long getBooksInserted() {
+        return booksInserted;
+    }
+
+    public void setBooksInserted(long booksInserted) {
+        this.booksInserted = booksInserted;
+    }
+
+    public long getAuthorsCreated() {
+        return authorsCreated;
+    }
+
+    public void setAuthorsCreated(long authorsCreated) {
+        this.authorsCreated = authorsCreated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public double getBooksPerSecond() {
+        long elapsed = getElapsedMs();
+        return elapsed == 0 ? 0.0 : booksInserted * 1000.0 / elapsed;
+    }
+
+    public List<ImportReject> getRejects() {
+        return rejects;
+    }
+}
@@ -0,0 +1,45 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.List;
+
+/**
+ * Title and author completions for a typed prefix, most borrowed first.
+ */
+public class SuggestResult {
+    private String prefix;
+    private List<Suggestion> titles;
+    private List<Suggestion> authors;
+
+    public SuggestResult() {
+    }
+
+    public SuggestResult(String prefix, List<Suggestion> titles, List<Suggestion> authors) {
+        this.prefix = prefix;
+        this.titles = titles;
+        this.authors = authors;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public List<Suggestion> getTitles() {
+        return titles;
+    }
+
+    public void setTitles(List<Suggestion> titles) {
+        this.titles = titles;
+    }
+
+    public List<Suggestion> getAuthors() {
+        return authors;
+    }
+
+    public void setAuthors(List<Suggestion> authors) {
+        this.authors = authors;
+    }
+}
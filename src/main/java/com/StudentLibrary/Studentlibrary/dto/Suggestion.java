@@ -0,0 +1,44 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+/**
+ * One typeahead completion: a book title or an author name, with the id to open and the
+ * number of times it has been borrowed.
+ */
+public class Suggestion {
+    private String text;
+    private int id;
+    private long borrowCount;
+
+    public Suggestion() {
+    }
+
+    public Suggestion(String text, int id, long borrowCount) {
+        this.text = text;
+        this.id = id;
+        this.borrowCount = borrowCount;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public void setBorrowCount(long borrowCount) {
+        this.borrowCount = borrowCount;
+    }
+}
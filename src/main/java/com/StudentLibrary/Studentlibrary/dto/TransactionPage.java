@@ -0,0 +1,38 @@
+package com.StudentLibrary.Studentlibrary.dto;
+
+import java.util.List;
+
+import com.StudentLibrary.Studentlibrary.Model.Transaction;
+
+/**
+ * One page of transaction history, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} to get the following page; it is null on the last page.
+ */
+public class TransactionPage {
+    private List<Transaction> items;
+    private String nextCursor;
+
+    public TransactionPage() {
+    }
+
+    public TransactionPage(List<Transaction> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Transaction> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.StudentLibrary.Studentlibrary.events;
+
+/**
+ * Published by AuthorService when an author is created, renamed or deleted, so catalog
+ * views that include author data can refresh that author's books.
+ */
+public class AuthorChangedEvent {
+
+    private final int authorId;
+
+    public AuthorChangedEvent(int authorId) {
+        this.authorId = authorId;
+    }
+
+    public int getAuthorId() {
+        return authorId;
+    }
+}
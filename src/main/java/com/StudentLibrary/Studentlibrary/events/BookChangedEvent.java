@@ -0,0 +1,24 @@
+package com.StudentLibrary.Studentlibrary.events;
+
+/**
+ * Published by BookService whenever a book's catalog data is created, changed or deleted.
+ * Derived catalog views (search index and the like) reload the book from the database.
+ */
+public class BookChangedEvent {
+
+    private final int bookId;
+    private final boolean deleted;
+
+    public BookChangedEvent(int bookId, boolean deleted) {
+        this.bookId = bookId;
+        this.deleted = deleted;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,25 @@
+package com.StudentLibrary.Studentlibrary.events;
+
+/**
+ * Published by BookImportService after a bulk import has committed books. Imported books
+ * get ids above {@code afterBookId}, so derived catalog views load just that id range
+ * instead of handling one BookChangedEvent per book.
+ */
+public class CatalogImportedEvent {
+
+    private final int afterBookId;
+    private final long booksInserted;
+
+    public CatalogImportedEvent(int afterBookId, long booksInserted) {
+        this.afterBookId = afterBookId;
+        this.booksInserted = booksInserted;
+    }
+
+    public int getAfterBookId() {
+        return afterBookId;
+    }
+
+    public long getBooksInserted() {
+        return booksInserted;
+    }
+}
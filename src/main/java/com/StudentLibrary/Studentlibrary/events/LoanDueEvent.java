@@ -0,0 +1,38 @@
+package com.StudentLibrary.Studentlibrary.events;
+
+import java.util.Date;
+
+/**
+ * Fired by LoanDueScheduler when an open loan reaches a due-date milestone. Subscribe with
+ * {@code @EventListener}; listeners run on the scheduler thread, so slow work (mail,
+ * remote calls) should be handed off. Milestones that passed while the application was
+ * down are not replayed.
+ */
+public class LoanDueEvent {
+
+    public enum Stage {
+        DUE_SOON, DUE_TODAY, OVERDUE
+    }
+
+    private final int loanId;
+    private final Stage stage;
+    private final Date dueDate;
+
+    public LoanDueEvent(int loanId, Stage stage, Date dueDate) {
+        this.loanId = loanId;
+        this.stage = stage;
+        this.dueDate = dueDate;
+    }
+
+    public int getLoanId() {
+        return loanId;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public Date getDueDate() {
+        return dueDate;
+    }
+}
@@ -0,0 +1,63 @@
+package com.StudentLibrary.Studentlibrary.events;
+
+import java.util.Date;
+
+/**
+ * Published by TransactionService when a loan is opened or closed, from inside the
+ * circulation transaction. Listen with {@code @TransactionalEventListener} to act only
+ * once the change has committed.
+ */
+public class LoanEvent {
+
+    public enum Type {
+        ISSUED, RETURNED
+    }
+
+    private final Type type;
+    private final int loanId;
+    private final int bookId;
+    private final int studentId;
+    private final Date dueDate;
+    private final Date occurredAt;
+    private final int fineAmount;
+
+    public LoanEvent(Type type, int loanId, int bookId, int studentId, Date dueDate, Date occurredAt, int fineAmount) {
+        this.type = type;
+        this.loanId = loanId;
+        this.bookId = bookId;
+        this.studentId = studentId;
+        this.dueDate = dueDate;
+        this.occurredAt = occurredAt;
+        this.fineAmount = fineAmount;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getLoanId() {
+        return loanId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public Date getDueDate() {
+        return dueDate;
+    }
+
+    /** Issue or return time, matching the transaction row's date. */
+    public Date getOccurredAt() {
+        return occurredAt;
+    }
+
+    /** Fine charged on return; 0 for issues. */
+    public int getFineAmount() {
+        return fineAmount;
+    }
+}
@@ -0,0 +1,337 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with BM25 ranking over int document ids (dense ids such as
+ * database keys keep the per-document arrays small). Callers pass each document as weighted
+ * term frequencies, which gives BM25F-style field boosts.
+ *
+ * Postings are append-only parallel arrays of doc id, term frequency and a one-byte
+ * generation, about 6 bytes each. Replacing or removing a document bumps its generation, so
+ * its old postings become stale without scanning every term; a compaction drops them
+ * once they pass a quarter of all postings, or before a generation could wrap. Queries
+ * take the read lock and score with pooled dense accumulators; writes take the write lock.
+ */
+public class Bm25Index {
+
+    /** Ranked page of document ids; {@code total} counts every matching document. */
+    public static class Hits {
+        private final int total;
+        private final int[] docIds;
+        private final float[] scores;
+
+        Hits(int total, int[] docIds, float[] scores) {
+            this.total = total;
+            this.docIds = docIds;
+            this.scores = scores;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int[] getDocIds() {
+            return docIds;
+        }
+
+        public float[] getScores() {
+            return scores;
+        }
+    }
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_TF = 255;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    private int[] docLengths = new int[1024];
+    private int[] docTermCounts = new int[1024];
+    private byte[] docGenerations = new byte[1024];
+    private int liveDocs;
+    private long totalLength;
+    private long postingCount;
+    private long stalePostings;
+
+    /** Adds a document, or replaces it if the id is already indexed. */
+    public void put(int docId, Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            ensureCapacity(docId);
+            if (termFrequencies.isEmpty()) {
+                return;
+            }
+            byte generation = docGenerations[docId];
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                int tf = Math.min(entry.getValue(), MAX_TF);
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(docId, tf, generation);
+                length += tf;
+            }
+            docLengths[docId] = length;
+            docTermCounts[docId] = termFrequencies.size();
+            liveDocs++;
+            totalLength += length;
+            postingCount += termFrequencies.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document containing at least one query term and returns the page
+     * starting at {@code offset}. Repeated query terms weigh more.
+     */
+    public Hits search(Iterable<String> queryTerms, int offset, int limit) {
+        Map<String, Integer> queryFrequencies = new HashMap<>();
+        for (String term : queryTerms) {
+            queryFrequencies.merge(term, 1, Integer::sum);
+        }
+        lock.readLock().lock();
+        Scratch scratch = borrowScratch();
+        try {
+            if (liveDocs == 0) {
+                return new Hits(0, new int[0], new float[0]);
+            }
+            scratch.ensureCapacity(docLengths.length);
+            float averageLength = (float) totalLength / liveDocs;
+            for (Map.Entry<String, Integer> entry : queryFrequencies.entrySet()) {
+                Postings list = postings.get(entry.getKey());
+                if (list != null) {
+                    accumulate(list, entry.getValue(), averageLength, scratch);
+                }
+            }
+            return topHits(scratch, offset, limit);
+        } finally {
+            scratch.clear();
+            scratchPool.offer(scratch);
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(Postings list, int queryFrequency, float averageLength, Scratch scratch) {
+        // Document frequency still counts stale postings; compaction keeps that error bounded
+        int df = Math.min(list.size, liveDocs);
+        float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5)) * queryFrequency;
+        float[] scores = scratch.scores;
+        for (int i = 0; i < list.size; i++) {
+            int doc = list.docs[i];
+            if (list.generations[i] != docGenerations[doc] || docLengths[doc] == 0) {
+                continue;
+            }
+            int tf = list.frequencies[i] & 0xFF;
+            float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+            if (scores[doc] == 0) {
+                scratch.touched[scratch.touchedCount++] = doc;
+            }
+            scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+        }
+    }
+
+    // Bounded min-heap over the touched documents, then sorted best first
+    private Hits topHits(Scratch scratch, int offset, int limit) {
+        int total = scratch.touchedCount;
+        int k = (int) Math.min((long) offset + limit, total);
+        if (k <= offset) {
+            return new Hits(total, new int[0], new float[0]);
+        }
+        float[] scores = scratch.scores;
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int i = 0; i < total; i++) {
+            int doc = scratch.touched[i];
+            if (heapSize < k) {
+                heap[heapSize] = doc;
+                siftUp(heap, heapSize++, scores);
+            } else if (better(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        int[] docIds = Arrays.copyOfRange(ranked, offset, heapSize);
+        float[] pageScores = new float[docIds.length];
+        for (int i = 0; i < docIds.length; i++) {
+            pageScores[i] = scores[docIds[i]];
+        }
+        return new Hits(total, docIds, pageScores);
+    }
+
+    // Higher score first; lower id breaks ties so paging is stable
+    private static boolean better(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], scores)) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            if (left + 1 < size && better(heap[left], heap[left + 1], scores)) {
+                worst = left + 1;
+            }
+            if (!better(heap[i], heap[worst], scores)) {
+                return;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private void removeLocked(int docId) {
+        if (docId >= docLengths.length || docLengths[docId] == 0) {
+            return;
+        }
+        if (docGenerations[docId] == Byte.MAX_VALUE) {
+            compact();
+        }
+        docGenerations[docId]++;
+        liveDocs--;
+        totalLength -= docLengths[docId];
+        stalePostings += docTermCounts[docId];
+        docLengths[docId] = 0;
+        docTermCounts[docId] = 0;
+        if (stalePostings > postingCount / 4 && stalePostings > 10_000) {
+            compact();
+        }
+    }
+
+    // Drops stale postings and restarts every generation at zero
+    private void compact() {
+        long kept = 0;
+        for (Postings list : postings.values()) {
+            kept += list.retainLive(docGenerations, docLengths);
+        }
+        postings.values().removeIf(list -> list.size == 0);
+        Arrays.fill(docGenerations, (byte) 0);
+        postingCount = kept;
+        stalePostings = 0;
+    }
+
+    private void ensureCapacity(int docId) {
+        if (docId < docLengths.length) {
+            return;
+        }
+        int capacity = Math.max(docLengths.length * 2, docId + 1);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        docTermCounts = Arrays.copyOf(docTermCounts, capacity);
+        docGenerations = Arrays.copyOf(docGenerations, capacity);
+    }
+
+    private Scratch borrowScratch() {
+        Scratch scratch = scratchPool.poll();
+        return scratch != null ? scratch : new Scratch();
+    }
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        byte[] frequencies = new byte[2];
+        byte[] generations = new byte[2];
+        int size;
+
+        void add(int doc, int tf, byte generation) {
+            if (size == docs.length) {
+                int capacity = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+                generations = Arrays.copyOf(generations, capacity);
+            }
+            docs[size] = doc;
+            frequencies[size] = (byte) tf;
+            generations[size] = generation;
+            size++;
+        }
+
+        int retainLive(byte[] docGenerations, int[] docLengths) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = docs[i];
+                if (generations[i] == docGenerations[doc] && docLengths[doc] != 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    generations[kept] = 0;
+                    kept++;
+                }
+            }
+            size = kept;
+            if (kept < docs.length / 2) {
+                docs = Arrays.copyOf(docs, Math.max(kept, 2));
+                frequencies = Arrays.copyOf(frequencies, Math.max(kept, 2));
+                generations = Arrays.copyOf(generations, Math.max(kept, 2));
+            }
+            return kept;
+        }
+    }
+
+    // Per-query accumulators, reused across queries instead of reallocated
+    private static final class Scratch {
+        float[] scores = new float[0];
+        int[] touched = new int[0];
+        int touchedCount;
+
+        void ensureCapacity(int docCapacity) {
+            if (scores.length < docCapacity) {
+                scores = new float[docCapacity];
+                touched = new int[docCapacity];
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
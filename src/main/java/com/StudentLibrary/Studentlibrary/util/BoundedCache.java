@@ -0,0 +1,251 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small in-memory LRU cache with a per-entry time to live and hit/miss/eviction counters.
+ * All operations lock the cache briefly; it is meant for lookups on the request path where
+ * a map probe is the whole cost.
+ *
+ * <p>The weighted constructor bounds the total weight instead of the entry count and admits
+ * entries W-TinyLFU style: new entries land in a small LRU window, and an entry leaving the
+ * window only displaces the main region's least recently used entry if it has been asked
+ * for more often, so one-off scans cannot flush the hot set.
+ */
+public class BoundedCache<K, V> {
+
+    /** Cost of an entry in the unit the cache is bounded by, e.g. approximate bytes. */
+    public interface Weigher<K, V> {
+        int weigh(K key, V value);
+    }
+
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final long ttlMillis;
+    private final Weigher<K, V> weigher;
+    private final FrequencySketch sketch;
+
+    private final LinkedHashMap<K, Entry<V>> window;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long windowWeight;
+    private long mainWeight;
+
+    // Bumped by every invalidation, so a load that raced one is not cached
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxEntries, long ttlMillis) {
+        this.maxWeight = maxEntries;
+        this.windowMaxWeight = 0;
+        this.ttlMillis = ttlMillis;
+        this.weigher = (key, value) -> 1;
+        this.sketch = null;
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /** A plain LRU cache holding at most {@code maxWeight} in total, for few, large values. */
+    public BoundedCache(long maxWeight, long ttlMillis, Weigher<K, V> weigher) {
+        this.maxWeight = maxWeight;
+        this.windowMaxWeight = 0;
+        this.ttlMillis = ttlMillis;
+        this.weigher = weigher;
+        this.sketch = null;
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * A cache holding at most {@code maxWeight} in total, with frequency-based admission.
+     * {@code expectedEntries} sizes the frequency sketch.
+     */
+    public BoundedCache(long maxWeight, long ttlMillis, Weigher<K, V> weigher, int expectedEntries) {
+        this.maxWeight = maxWeight;
+        this.windowMaxWeight = Math.max(1, maxWeight / 100);
+        this.ttlMillis = ttlMillis;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            Entry<V> entry = window.get(key);
+            if (entry == null) {
+                entry = entries.get(key);
+            }
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the cached value, or loads it outside the lock and caches it. Nothing is cached
+     * when the loader returns null or an invalidation ran while it was loading.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long before;
+        synchronized (this) {
+            before = invalidations;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (invalidations == before) {
+                    putLocked(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        synchronized (this) {
+            putLocked(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        window.clear();
+        entries.clear();
+        windowWeight = 0;
+        mainWeight = 0;
+    }
+
+    public synchronized int size() {
+        return window.size() + entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return windowWeight + mainWeight;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void putLocked(K key, V value) {
+        remove(key);
+        int weight = weigher.weigh(key, value);
+        // With admission an entry must fit the main region, or it would only ever empty it
+        if (weight > (sketch == null ? maxWeight : maxWeight - windowMaxWeight)) {
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, System.currentTimeMillis() + ttlMillis, weight);
+        if (sketch == null) {
+            entries.put(key, entry);
+            mainWeight += weight;
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (mainWeight > maxWeight && eldest.hasNext()) {
+                mainWeight -= eldest.next().getValue().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+            return;
+        }
+        window.put(key, entry);
+        windowWeight += weight;
+        Iterator<Map.Entry<K, Entry<V>>> eldest = window.entrySet().iterator();
+        while (windowWeight > windowMaxWeight && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> candidate = eldest.next();
+            eldest.remove();
+            windowWeight -= candidate.getValue().weight;
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Moves an entry leaving the window into the main region if it beats every entry it would
+     * displace. The victims are picked and compared first and only removed once the candidate
+     * has won, so a rejected candidate never costs the main region anything.
+     */
+    private void admit(K key, Entry<V> candidate) {
+        long excess = mainWeight + candidate.weight - (maxWeight - windowMaxWeight);
+        int candidateFrequency = sketch.frequency(key);
+        int victimCount = 0;
+        for (Map.Entry<K, Entry<V>> victim : entries.entrySet()) {
+            if (excess <= 0) {
+                break;
+            }
+            if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                evictions.increment();
+                return;
+            }
+            excess -= victim.getValue().weight;
+            victimCount++;
+        }
+        if (excess > 0) {
+            evictions.increment();
+            return;
+        }
+        Iterator<Map.Entry<K, Entry<V>>> victims = entries.entrySet().iterator();
+        for (int i = 0; i < victimCount; i++) {
+            mainWeight -= victims.next().getValue().weight;
+            victims.remove();
+            evictions.increment();
+        }
+        entries.put(key, candidate);
+        mainWeight += candidate.weight;
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = window.remove(key);
+        if (removed != null) {
+            windowWeight -= removed.weight;
+        }
+        removed = entries.remove(key);
+        if (removed != null) {
+            mainWeight -= removed.weight;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        final int weight;
+
+        Entry(V value, long expiresAt, int weight) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Files on local disk named by the SHA-256 of their content, fanned out over two directory
+ * levels ({@code ab/cd/abcd...}). Storing the same bytes twice keeps one file. Writes go to
+ * a temporary file that is synced and then atomically renamed, so a file under its hash
+ * name is always complete.
+ */
+public class ContentAddressedStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_LENGTH = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path root;
+    private final Path incoming;
+
+    public ContentAddressedStore(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        Files.createDirectories(incoming);
+    }
+
+    /** Copies the stream into the store and returns the hash it is stored under. */
+    public StoredBlob store(InputStream in) throws IOException {
+        return store(in, false);
+    }
+
+    /**
+     * Copies the stream into the store, hashing it on the way. With {@code imagesOnly},
+     * content that is not a JPEG, PNG, GIF or WebP image is rejected with an
+     * IllegalArgumentException and never enters the store.
+     */
+    public StoredBlob store(InputStream in, boolean imagesOnly) throws IOException {
+        Path temp = Files.createTempFile(incoming, "blob-", ".part");
+        try {
+            Fingerprint fingerprint = new Fingerprint();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    fingerprint.update(buffer, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                }
+                out.force(true);
+            }
+            return place(temp, fingerprint, imagesOnly);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * A fresh path in the store's incoming directory, on the same file system as the store,
+     * for a caller that can move a finished file there (such as a multipart upload's temp
+     * file) and then {@link #adopt} it without copying.
+     */
+    public Path newIncomingPath() {
+        return incoming.resolve("upload-" + UUID.randomUUID() + ".part");
+    }
+
+    /**
+     * Takes over a complete file under {@link #newIncomingPath}: hashes and validates it in
+     * one read with a fixed buffer, syncs it and renames it into place. The file is gone
+     * afterwards, whether or not it was accepted.
+     */
+    public StoredBlob adopt(Path file, boolean imagesOnly) throws IOException {
+        try {
+            Fingerprint fingerprint = new Fingerprint();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = channel.read(wrapped)) != -1) {
+                    fingerprint.update(buffer, read);
+                    wrapped.clear();
+                }
+                channel.force(true);
+            }
+            return place(file, fingerprint, imagesOnly);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private StoredBlob place(Path file, Fingerprint fingerprint, boolean imagesOnly) throws IOException {
+        String imageType = sniffImageType(fingerprint.head, fingerprint.headLength);
+        if (imagesOnly && imageType == null) {
+            throw new IllegalArgumentException("Not a JPEG, PNG, GIF or WebP image");
+        }
+        String hash = toHex(fingerprint.digest.digest());
+        Path target = pathOf(hash);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return new StoredBlob(hash, fingerprint.size, imageType);
+    }
+
+    /** Path of the file stored under {@code hash}, or null if there is none. */
+    public Path resolve(String hash) {
+        if (!isHash(hash)) {
+            return null;
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Path of a file derived from the blob under {@code hash}, such as a thumbnail, or null if
+     * it has not been made. Derivatives sit next to their source as {@code <hash>.<variant>}.
+     */
+    public Path resolveDerivative(String hash, String variant) {
+        if (!isHash(hash) || !isVariant(variant)) {
+            return null;
+        }
+        Path path = derivativePathOf(hash, variant);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /** Atomically writes a derivative of the blob under {@code hash}, replacing any earlier one. */
+    public void storeDerivative(String hash, String variant, byte[] content) throws IOException {
+        if (!isHash(hash) || !isVariant(variant)) {
+            throw new IllegalArgumentException("Invalid derivative " + hash + "." + variant);
+        }
+        Path temp = Files.createTempFile(incoming, "derived-", ".part");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Path target = derivativePathOf(hash, variant);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path derivativePathOf(String hash, String variant) {
+        return pathOf(hash).resolveSibling(hash + "." + variant);
+    }
+
+    private static boolean isVariant(String variant) {
+        if (variant == null || variant.isEmpty() || variant.length() > 32) {
+            return false;
+        }
+        for (int i = 0; i < variant.length(); i++) {
+            char ch = variant.charAt(i);
+            if ((ch < '0' || ch > '9') && (ch < 'a' || ch > 'z') && ch != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static boolean isHash(String hash) {
+        if (hash == null || hash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char ch = hash.charAt(i);
+            if ((ch < '0' || ch > '9') && (ch < 'a' || ch > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Recognises the image formats browsers render from their magic numbers
+    private static String sniffImageType(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) {
+            return "image/jpeg";
+        }
+        if (length >= 8 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "image/gif";
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    // Hash, length and leading bytes of content seen so far
+    private static final class Fingerprint {
+        final MessageDigest digest = sha256();
+        final byte[] head = new byte[SNIFF_LENGTH];
+        int headLength;
+        long size;
+
+        void update(byte[] buffer, int length) {
+            digest.update(buffer, 0, length);
+            if (headLength < SNIFF_LENGTH) {
+                int copied = Math.min(length, SNIFF_LENGTH - headLength);
+                System.arraycopy(buffer, 0, head, headLength, copied);
+                headLength += copied;
+            }
+            size += length;
+        }
+    }
+
+    public static final class StoredBlob {
+        private final String hash;
+        private final long size;
+        private final String imageType;
+
+        StoredBlob(String hash, long size, String imageType) {
+            this.hash = hash;
+            this.size = size;
+            this.imageType = imageType;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /** MIME type if the content starts like a JPEG, PNG, GIF or WebP image, otherwise null. */
+        public String getImageType() {
+            return imageType;
+        }
+    }
+}
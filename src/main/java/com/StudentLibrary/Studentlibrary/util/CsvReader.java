@@ -0,0 +1,151 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: one record per call, read through a fixed buffer, with
+ * quoted fields that may contain commas, doubled quotes and line breaks. Accepts LF and
+ * CRLF line ends. A record longer than {@code maxRecordChars} fails instead of growing
+ * without bound, so an unterminated quote cannot swallow the rest of the input.
+ */
+public final class CsvReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    private final StringBuilder field = new StringBuilder();
+    private int recordChars;
+    private long lineNumber = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /** Line on which the record last returned by {@link #readRecord} started (1-based). */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * The next record's fields, or null at end of input. Blank lines are skipped. Throws
+     * IllegalArgumentException for a record that is too long or ends inside quotes.
+     */
+    public List<String> readRecord() throws IOException {
+        int c;
+        do {
+            c = read();
+            if (c == '\r' && peek() == '\n') {
+                c = read();
+            }
+            if (c == '\n') {
+                lineNumber++;
+            }
+        } while (c == '\n');
+        if (c == -1) {
+            return null;
+        }
+        recordLine = lineNumber;
+        recordChars = 0;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean inQuotes = false;
+        while (true) {
+            if (++recordChars > maxRecordChars) {
+                skipRecord(c, inQuotes);
+                throw new IllegalArgumentException("Record longer than " + maxRecordChars + " characters");
+            }
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == -1 || (c == '\r' && (peek() == '\n' || peek() == -1))) {
+                if (c == '\r') {
+                    read();
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                quoted = true;
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Drops the rest of an oversized record so reading can resume at the next one
+    private void skipRecord(int c, boolean inQuotes) throws IOException {
+        while (c != -1) {
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == '\n') {
+                lineNumber++;
+                if (!inQuotes) {
+                    return;
+                }
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            eof = read < 0;
+            return !eof && fill();
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
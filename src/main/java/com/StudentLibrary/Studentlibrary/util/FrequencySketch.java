@@ -0,0 +1,65 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+/**
+ * Approximate access counts for TinyLFU admission: a count-min sketch of 4-bit counters,
+ * sixteen to a long, with four counters per key. Every counter is halved once the number
+ * of increments reaches ten times the table width, so old popularity fades. Not thread
+ * safe; callers hold their own lock.
+ */
+final class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97cb3127, 0xb24d8cf7, 0x3c6ef372, 0x9e3779b9};
+
+    private final long[] table;
+    private final int sampleSize;
+    private int increments;
+
+    FrequencySketch(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(2, expectedEntries) - 1) << 1;
+        table = new long[width];
+        sampleSize = 10 * width;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = 15;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int h = rehash(hash, i);
+            int shift = (h >>> 28) << 2;
+            min = Math.min(min, (int) ((table[h & (table.length - 1)] >>> shift) & 15));
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int h = rehash(hash, i);
+            int index = h & (table.length - 1);
+            int shift = (h >>> 28) << 2;
+            if (((table[index] >>> shift) & 15) < 15) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++increments >= sampleSize) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            increments /= 2;
+        }
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int rehash(int hash, int i) {
+        int h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 15);
+    }
+}
@@ -0,0 +1,44 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque continuation token for (date, id) keyset pagination. The token is the URL-safe
+ * Base64 form of {@code "<epochMillis>:<id>"}; clients should treat it as an opaque string.
+ */
+public final class KeysetCursor {
+
+    private final Date date;
+    private final int id;
+
+    public KeysetCursor(Date date, int id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = date.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new KeysetCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Reconciles the full load of an in-memory book mirror with the change events that arrive
+ * while it runs. Event handlers call {@link #markChanged} before they re-read a book into
+ * the current copy; the load calls {@link #begin} before its streamed query and
+ * {@link #finish} afterwards. {@code finish} swaps in the fresh copy under the same lock
+ * that {@code markChanged} takes, so every change is either written to the fresh copy by
+ * its handler or recorded and replayed into it.
+ */
+public final class LoadTracker {
+
+    private final Object lock = new Object();
+    private Set<Integer> changedDuringLoad;
+
+    public void begin() {
+        synchronized (lock) {
+            changedDuringLoad = new HashSet<>();
+        }
+    }
+
+    /** Records a book about to be re-read; a no-op when no load is running. */
+    public void markChanged(int bookId) {
+        synchronized (lock) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(bookId);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code publish} (making the loaded copy current) and ends the load in one step,
+     * then hands each book changed during the load to {@code replay}.
+     */
+    public void finish(Runnable publish, IntConsumer replay) {
+        Set<Integer> changed;
+        synchronized (lock) {
+            publish.run();
+            changed = changedDuringLoad;
+            changedDuringLoad = null;
+        }
+        if (changed == null) {
+            return;
+        }
+        for (int bookId : changed) {
+            replay.accept(bookId);
+        }
+    }
+}
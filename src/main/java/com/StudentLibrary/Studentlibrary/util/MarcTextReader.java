@@ -0,0 +1,114 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental reader for MARC records in the line-based text form ("mnemonic" MARC, as
+ * written by MarcEdit): one field per line as {@code =TAG  data}, records separated by
+ * blank lines. Data fields start with two indicator characters followed by subfields
+ * introduced by {@code $}; a literal dollar sign is written {@code {dollar}}. Lines that
+ * do not start with {@code =} continue the previous field.
+ */
+public final class MarcTextReader {
+
+    /** One record's fields in input order. */
+    public static final class Record {
+        private final List<String> tags = new ArrayList<>();
+        private final List<String> data = new ArrayList<>();
+
+        /** Text of the first subfield {@code code} of the first field {@code tag}, or null. */
+        public String getSubfield(String tag, char code) {
+            for (int i = 0; i < tags.size(); i++) {
+                if (!tags.get(i).equals(tag)) {
+                    continue;
+                }
+                String value = data.get(i);
+                // Indicators come first; subfields follow
+                int start = value.indexOf('$');
+                while (start >= 0 && start + 1 < value.length()) {
+                    int end = value.indexOf('$', start + 1);
+                    if (value.charAt(start + 1) == code) {
+                        String text = value.substring(start + 2, end < 0 ? value.length() : end);
+                        return text.replace("{dollar}", "$").trim();
+                    }
+                    start = end;
+                }
+            }
+            return null;
+        }
+
+        /** Data of the first control field {@code tag} (001-009), or null. */
+        public String getControlField(String tag) {
+            int index = tags.indexOf(tag);
+            return index < 0 ? null : data.get(index).trim();
+        }
+
+        public boolean isEmpty() {
+            return tags.isEmpty();
+        }
+    }
+
+    private final BufferedReader reader;
+    private final int maxRecordChars;
+    private long lineNumber;
+    private long recordLine;
+
+    public MarcTextReader(BufferedReader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /** Line on which the record last returned by {@link #readRecord} started (1-based). */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * The next record, or null at end of input. Throws IllegalArgumentException for a
+     * record that is too long or has a malformed field line; the rest of that record is
+     * skipped so reading can continue.
+     */
+    public Record readRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.trim().isEmpty());
+        if (line == null) {
+            return null;
+        }
+        recordLine = lineNumber;
+        Record record = new Record();
+        int chars = 0;
+        String error = null;
+        while (line != null && !line.trim().isEmpty()) {
+            chars += line.length();
+            if (error == null) {
+                if (chars > maxRecordChars) {
+                    error = "Record longer than " + maxRecordChars + " characters";
+                } else if (line.startsWith("=")) {
+                    if (line.length() < 4) {
+                        error = "Malformed field line: " + line;
+                    } else {
+                        record.tags.add(line.substring(1, 4));
+                        record.data.add(line.length() > 6 ? line.substring(6) : "");
+                    }
+                } else if (record.data.isEmpty()) {
+                    error = "Record does not start with a field line";
+                } else {
+                    int last = record.data.size() - 1;
+                    record.data.set(last, record.data.get(last) + line);
+                }
+            }
+            line = reader.readLine();
+            lineNumber++;
+        }
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return record;
+    }
+}
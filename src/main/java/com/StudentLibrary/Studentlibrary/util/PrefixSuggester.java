@@ -0,0 +1,401 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable top-k prefix completion over weighted strings. Keys are kept in a radix trie
+ * laid out in flat arrays, and every node stores the positions of its k heaviest keys, so
+ * a lookup walks the prefix once and copies out a precomputed list without allocating.
+ * {@link #completions} also hands out each node's payload list, built on first use and
+ * shared by later lookups until the suggester is replaced.
+ * Keys are folded with {@link #normalize}; queries must be folded the same way.
+ *
+ * @param <T> payload returned for each completion
+ */
+public final class PrefixSuggester<T> {
+
+    /** Keys longer than this are cut; completions only ever need their first characters. */
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private static final char[] FOLD = buildFoldTable();
+
+    private final int k;
+
+    // Keys in sorted order; a key's position is its entry id
+    private final String[] keys;
+    private final long[] weights;
+    private final Object[] payloads;
+
+    // Trie nodes; children of a node have consecutive ids ordered by label
+    private final int[] nodeDepth;
+    private final int[] nodeKey;
+    private final char[] nodeLabel;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final int[] topCount;
+    private final int[] top;
+
+    // Payload lists per node, built on first lookup; racing builders produce equal lists
+    private final Object[] nodeCompletions;
+
+    private PrefixSuggester(int k, String[] keys, long[] weights, Object[] payloads, Nodes nodes) {
+        this.k = k;
+        this.keys = keys;
+        this.weights = weights;
+        this.payloads = payloads;
+        this.nodeDepth = Arrays.copyOf(nodes.depth, nodes.count);
+        this.nodeKey = Arrays.copyOf(nodes.key, nodes.count);
+        this.nodeLabel = Arrays.copyOf(nodes.label, nodes.count);
+        this.firstChild = Arrays.copyOf(nodes.firstChild, nodes.count);
+        this.childCount = Arrays.copyOf(nodes.childCount, nodes.count);
+        this.topStart = Arrays.copyOf(nodes.topStart, nodes.count);
+        this.topCount = Arrays.copyOf(nodes.topCount, nodes.count);
+        this.top = Arrays.copyOf(nodes.top, nodes.topSize);
+        this.nodeCompletions = new Object[nodes.count];
+    }
+
+    /** Largest number of completions a lookup can return. */
+    public int getMaxResults() {
+        return k;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Writes the ids of the heaviest keys starting with the folded prefix
+     * {@code prefix[0..length)} into {@code out}, heaviest first, and returns how many were
+     * written. Ties are broken alphabetically.
+     */
+    public int complete(char[] prefix, int length, int[] out) {
+        int node = findNode(prefix, length);
+        if (node < 0) {
+            return 0;
+        }
+        int count = Math.min(Math.min(topCount[node], k), out.length);
+        System.arraycopy(top, topStart[node], out, 0, count);
+        return count;
+    }
+
+    /**
+     * Payloads of the heaviest keys starting with the folded prefix, heaviest first, as an
+     * unmodifiable list that repeated lookups of the same prefix share.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> completions(char[] prefix, int length) {
+        int node = findNode(prefix, length);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        List<T> completions = (List<T>) nodeCompletions[node];
+        if (completions == null) {
+            Object[] values = new Object[Math.min(topCount[node], k)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = payloads[top[topStart[node] + i]];
+            }
+            // Only final fields lead to the values, so a racing reader sees them fully built
+            completions = Collections.unmodifiableList(Arrays.asList((T[]) values));
+            nodeCompletions[node] = completions;
+        }
+        return completions;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getPayload(int id) {
+        return (T) payloads[id];
+    }
+
+    public long getWeight(int id) {
+        return weights[id];
+    }
+
+    // The node whose subtree holds exactly the keys starting with the prefix, or -1
+    private int findNode(char[] prefix, int length) {
+        if (keys.length == 0) {
+            return -1;
+        }
+        int node = 0;
+        int matched = 0;
+        while (true) {
+            int depth = nodeDepth[node];
+            String key = keys[nodeKey[node]];
+            int end = Math.min(depth, length);
+            for (int i = matched; i < end; i++) {
+                if (key.charAt(i) != prefix[i]) {
+                    return -1;
+                }
+            }
+            if (length <= depth) {
+                return node;
+            }
+            node = findChild(node, prefix[depth]);
+            if (node < 0) {
+                return -1;
+            }
+            matched = depth + 1;
+        }
+    }
+
+    private int findChild(int node, char label) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midLabel = nodeLabel[mid];
+            if (midLabel < label) {
+                lo = mid + 1;
+            } else if (midLabel > label) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Folds {@code text} into {@code buffer} and returns the folded length: accents are
+     * stripped, letters lower-cased, and every run of other characters becomes one space.
+     * Leading separators are dropped; a trailing one is kept only when
+     * {@code keepTrailingSpace} is set, so a query of "harry " only matches further words.
+     * Output stops when the buffer is full.
+     */
+    public static int normalize(CharSequence text, char[] buffer, boolean keepTrailingSpace) {
+        int length = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length() && length < buffer.length; i++) {
+            char ch = fold(text.charAt(i));
+            if (ch == 0) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                buffer[length++] = ' ';
+                pendingSpace = false;
+                if (length == buffer.length) {
+                    break;
+                }
+            }
+            buffer[length++] = ch;
+        }
+        if (pendingSpace && keepTrailingSpace && length < buffer.length) {
+            buffer[length++] = ' ';
+        }
+        return length;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        char[] buffer = new char[MAX_KEY_LENGTH];
+        return new String(buffer, 0, normalize(text, buffer, false));
+    }
+
+    // Returns the folded form of a character, or 0 for a separator
+    private static char fold(char ch) {
+        if (ch < FOLD.length) {
+            return FOLD[ch];
+        }
+        return Character.isLetterOrDigit(ch) ? Character.toLowerCase(ch) : 0;
+    }
+
+    // Precomputed folds for Latin-1 and Latin Extended-A/B, where nearly all accents live
+    private static char[] buildFoldTable() {
+        char[] table = new char[0x250];
+        for (char ch = 0; ch < table.length; ch++) {
+            if (!Character.isLetterOrDigit(ch)) {
+                continue;
+            }
+            String decomposed = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFD);
+            table[ch] = Character.toLowerCase(decomposed.charAt(0));
+        }
+        return table;
+    }
+
+    public static <T> Builder<T> builder(int k) {
+        return new Builder<>(k);
+    }
+
+    public static final class Builder<T> {
+        private final int k;
+        private final List<String> keys = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+        private final List<T> payloads = new ArrayList<>();
+
+        private Builder(int k) {
+            if (k < 1) {
+                throw new IllegalArgumentException("k must be positive");
+            }
+            this.k = k;
+        }
+
+        /** Adds a completion; text that folds to nothing is ignored. */
+        public Builder<T> add(String text, long weight, T payload) {
+            String key = normalize(text);
+            if (!key.isEmpty()) {
+                keys.add(key);
+                weights.add(weight);
+                payloads.add(payload);
+            }
+            return this;
+        }
+
+        public PrefixSuggester<T> build() {
+            int n = keys.size();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+
+            String[] sortedKeys = new String[n];
+            long[] sortedWeights = new long[n];
+            Object[] sortedPayloads = new Object[n];
+            for (int i = 0; i < n; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedWeights[i] = weights.get(order[i]);
+                sortedPayloads[i] = payloads.get(order[i]);
+            }
+
+            Nodes nodes = new Nodes(Math.max(1, 2 * n), k);
+            if (n > 0) {
+                nodes.reserve(1);
+                fill(nodes, 0, sortedKeys, sortedWeights, 0, n, (char) 0);
+            }
+            return new PrefixSuggester<>(k, sortedKeys, sortedWeights, sortedPayloads, nodes);
+        }
+
+        // Builds the node for sorted keys [lo, hi), which all share the path down to it
+        private void fill(Nodes nodes, int node, String[] keys, long[] weights, int lo, int hi, char label) {
+            int depth = hi - lo == 1 ? keys[lo].length() : commonPrefix(keys[lo], keys[hi - 1]);
+            nodes.depth[node] = depth;
+            nodes.key[node] = lo;
+            nodes.label[node] = label;
+
+            // Keys ending exactly here sort first; the rest split on their next character
+            int start = lo;
+            while (start < hi && keys[start].length() == depth) {
+                start++;
+            }
+            int groups = 0;
+            for (int i = start; i < hi; i++) {
+                if (i == start || keys[i].charAt(depth) != keys[i - 1].charAt(depth)) {
+                    groups++;
+                }
+            }
+            int first = nodes.reserve(groups);
+            nodes.firstChild[node] = first;
+            nodes.childCount[node] = groups;
+            int child = first;
+            int groupStart = start;
+            for (int i = start + 1; i <= hi; i++) {
+                if (i == hi || keys[i].charAt(depth) != keys[groupStart].charAt(depth)) {
+                    fill(nodes, child++, keys, weights, groupStart, i, keys[groupStart].charAt(depth));
+                    groupStart = i;
+                }
+            }
+
+            // The heaviest k here are among the keys ending here and each child's heaviest k;
+            // children are complete by now, so one merge buffer serves every node
+            int[] best = nodes.best;
+            int count = 0;
+            for (int i = lo; i < start; i++) {
+                count = offer(best, count, i, weights);
+            }
+            for (int c = first; c < first + groups; c++) {
+                for (int j = 0; j < nodes.topCount[c]; j++) {
+                    count = offer(best, count, nodes.top[nodes.topStart[c] + j], weights);
+                }
+            }
+            nodes.topStart[node] = nodes.appendTop(best, count);
+            nodes.topCount[node] = count;
+        }
+
+        // Inserts id into the heaviest-first list best[0..count) capped at k entries
+        private int offer(int[] best, int count, int id, long[] weights) {
+            int pos = count;
+            while (pos > 0 && heavier(id, best[pos - 1], weights)) {
+                pos--;
+            }
+            if (pos >= k) {
+                return count;
+            }
+            int newCount = Math.min(count + 1, k);
+            System.arraycopy(best, pos, best, pos + 1, newCount - pos - 1);
+            best[pos] = id;
+            return newCount;
+        }
+
+        private static boolean heavier(int a, int b, long[] weights) {
+            return weights[a] != weights[b] ? weights[a] > weights[b] : a < b;
+        }
+
+        private static int commonPrefix(String a, String b) {
+            int max = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < max && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    // Growable node arrays used while building
+    private static final class Nodes {
+        int count;
+        int[] depth;
+        int[] key;
+        char[] label;
+        int[] firstChild;
+        int[] childCount;
+        int[] topStart;
+        int[] topCount;
+        int topSize;
+        int[] top = new int[16];
+        final int[] best;
+
+        Nodes(int capacity, int k) {
+            best = new int[k];
+            depth = new int[capacity];
+            key = new int[capacity];
+            label = new char[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            topStart = new int[capacity];
+            topCount = new int[capacity];
+        }
+
+        int reserve(int n) {
+            int first = count;
+            count += n;
+            if (count > depth.length) {
+                int capacity = Math.max(count, depth.length * 2);
+                depth = Arrays.copyOf(depth, capacity);
+                key = Arrays.copyOf(key, capacity);
+                label = Arrays.copyOf(label, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                topStart = Arrays.copyOf(topStart, capacity);
+                topCount = Arrays.copyOf(topCount, capacity);
+            }
+            return first;
+        }
+
+        int appendTop(int[] ids, int n) {
+            if (topSize + n > top.length) {
+                top = Arrays.copyOf(top, Math.max(topSize + n, top.length * 2));
+            }
+            int start = topSize;
+            System.arraycopy(ids, 0, top, topSize, n);
+            topSize += n;
+            return start;
+        }
+    }
+}
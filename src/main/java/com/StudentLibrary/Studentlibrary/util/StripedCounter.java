@@ -0,0 +1,48 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A long counter spread over cache-line-padded stripes picked by thread id, so concurrent
+ * writers rarely contend. Unlike LongAdder, {@link #drain()} takes each stripe with an
+ * atomic get-and-set, so an increment is never lost between reading and resetting.
+ */
+public class StripedCounter {
+
+    // 8 longs = 64 bytes, one cache line per stripe
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.cells = new AtomicLongArray(size * PADDING);
+        this.mask = size - 1;
+    }
+
+    public void add(long delta) {
+        int stripe = (int) (Thread.currentThread().getId() & mask);
+        cells.addAndGet(stripe * PADDING, delta);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /** Returns the current total and resets the counter to zero. */
+    public long drain() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.getAndSet(i, 0);
+        }
+        return sum;
+    }
+}
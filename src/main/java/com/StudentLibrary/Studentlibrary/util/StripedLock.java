@@ -0,0 +1,59 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by hashing keys onto stripes. Two keys may map to the same
+ * stripe, so callers must only rely on "same key, same lock".
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLock(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock get(int key) {
+        return locks[indexFor(key)];
+    }
+
+    /**
+     * The distinct locks for the given keys in stripe order. Acquiring them in the returned
+     * order avoids deadlocks between callers locking overlapping key sets.
+     */
+    public List<Lock> getAll(Collection<Integer> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (int key : keys) {
+            indexes.add(indexFor(key));
+        }
+        List<Lock> result = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            result.add(locks[index]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return locks.length;
+    }
+
+    private int indexFor(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
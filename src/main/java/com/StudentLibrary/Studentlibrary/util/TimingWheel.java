@@ -0,0 +1,300 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel keyed by int ids, with one pending timer per key. Four levels of
+ * 64 slots cover 2^24 ticks (about 32 years at one-minute ticks); further deadlines are parked
+ * in the top level and re-filed when it cascades. Scheduling and cancelling are O(1), and
+ * advancing costs one slot per tick plus the timers that move down or fire.
+ *
+ * Timers live in parallel primitive arrays: 23 bytes per entry slot plus two to four int
+ * slots of key index per timer, which with the spare capacity left by array doubling comes
+ * to 31-62 bytes per pending timer (see {@link #getSizeInBytes}), so a million timers stay
+ * well below 100MB of heap. All methods are thread-safe; the handler runs outside the lock
+ * and may schedule again.
+ */
+public class TimingWheel {
+
+    /** Receives timers as they fire. */
+    @FunctionalInterface
+    public interface Handler {
+        void expired(int key, int tick, int data, byte tag);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int[] heads = new int[SLOTS * LEVELS];
+
+    // Next tick to process; every earlier tick has fired
+    private int currentTick;
+
+    private int[] keys;
+    private int[] ticks;
+    private int[] data;
+    private byte[] tags;
+    private int[] next;
+    private int[] prev;
+    private short[] buckets;
+    private int highWater;
+    private int freeHead = NIL;
+    private int size;
+
+    // key -> entry, open addressing with linear probing; NIL marks an empty slot
+    private int[] index;
+
+    public TimingWheel(int startTick) {
+        this.currentTick = startTick;
+        Arrays.fill(heads, NIL);
+        keys = new int[INITIAL_CAPACITY];
+        ticks = new int[INITIAL_CAPACITY];
+        data = new int[INITIAL_CAPACITY];
+        tags = new byte[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+        prev = new int[INITIAL_CAPACITY];
+        buckets = new short[INITIAL_CAPACITY];
+        index = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(index, NIL);
+    }
+
+    /** Schedules {@code key} to fire at {@code tick}, replacing any timer it already has. */
+    public synchronized void schedule(int key, int tick, int data, byte tag) {
+        int entry = find(key);
+        if (entry != NIL) {
+            unlink(entry);
+        } else {
+            entry = allocate();
+            keys[entry] = key;
+            indexPut(entry);
+            size++;
+        }
+        ticks[entry] = tick;
+        this.data[entry] = data;
+        tags[entry] = tag;
+        link(entry);
+    }
+
+    /** Removes the key's pending timer; returns false if it had none. */
+    public synchronized boolean cancel(int key) {
+        int entry = find(key);
+        if (entry == NIL) {
+            return false;
+        }
+        unlink(entry);
+        indexRemove(key);
+        release(entry);
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int getCurrentTick() {
+        return currentTick;
+    }
+
+    /** Heap bytes held by the timer and index arrays, including unused capacity. */
+    public synchronized long getSizeInBytes() {
+        return keys.length * 23L + index.length * 4L + heads.length * 4L;
+    }
+
+    /**
+     * Processes every tick up to and including {@code tick}, passing each due timer to the
+     * handler. Returns the number of timers that fired.
+     */
+    public int advanceTo(int tick, Handler handler) {
+        int fired = 0;
+        int[] firedKeys = new int[16];
+        int[] firedTicks = new int[16];
+        int[] firedData = new int[16];
+        byte[] firedTags = new byte[16];
+        while (true) {
+            int count = 0;
+            synchronized (this) {
+                if (currentTick - tick > 0) {
+                    return fired;
+                }
+                cascadeIfNeeded();
+                int bucket = currentTick & SLOT_MASK;
+                int entry = heads[bucket];
+                heads[bucket] = NIL;
+                while (entry != NIL) {
+                    if (count == firedKeys.length) {
+                        firedKeys = Arrays.copyOf(firedKeys, count * 2);
+                        firedTicks = Arrays.copyOf(firedTicks, count * 2);
+                        firedData = Arrays.copyOf(firedData, count * 2);
+                        firedTags = Arrays.copyOf(firedTags, count * 2);
+                    }
+                    firedKeys[count] = keys[entry];
+                    firedTicks[count] = ticks[entry];
+                    firedData[count] = data[entry];
+                    firedTags[count] = tags[entry];
+                    count++;
+                    int following = next[entry];
+                    indexRemove(keys[entry]);
+                    release(entry);
+                    entry = following;
+                }
+                currentTick++;
+            }
+            for (int i = 0; i < count; i++) {
+                handler.expired(firedKeys[i], firedTicks[i], firedData[i], firedTags[i]);
+            }
+            fired += count;
+        }
+    }
+
+    // Moves the higher-level slots that start at this tick down, top levels last (as the kernel does)
+    private void cascadeIfNeeded() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1 << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int slot = (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+            int bucket = level * SLOTS + slot;
+            int entry = heads[bucket];
+            heads[bucket] = NIL;
+            while (entry != NIL) {
+                int following = next[entry];
+                link(entry);
+                entry = following;
+            }
+            if (slot != 0) {
+                return;
+            }
+        }
+    }
+
+    private void link(int entry) {
+        long delta = (long) ticks[entry] - currentTick;
+        int bucket;
+        if (delta < SLOTS) {
+            long due = delta < 0 ? currentTick : ticks[entry];
+            bucket = (int) (due & SLOT_MASK);
+        } else {
+            long due = delta < MAX_SPAN ? ticks[entry] : (long) currentTick + MAX_SPAN - 1;
+            int level = 1;
+            while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+                level++;
+            }
+            bucket = level * SLOTS + (int) ((due >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        int head = heads[bucket];
+        next[entry] = head;
+        prev[entry] = NIL;
+        if (head != NIL) {
+            prev[head] = entry;
+        }
+        heads[bucket] = entry;
+        buckets[entry] = (short) bucket;
+    }
+
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before != NIL) {
+            next[before] = after;
+        } else {
+            heads[buckets[entry]] = after;
+        }
+        if (after != NIL) {
+            prev[after] = before;
+        }
+    }
+
+    private int allocate() {
+        if (freeHead != NIL) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (highWater == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            data = Arrays.copyOf(data, capacity);
+            tags = Arrays.copyOf(tags, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+        }
+        return highWater++;
+    }
+
+    private void release(int entry) {
+        next[entry] = freeHead;
+        freeHead = entry;
+        size--;
+    }
+
+    private int find(int key) {
+        int mask = index.length - 1;
+        for (int i = hash(key) & mask; index[i] != NIL; i = (i + 1) & mask) {
+            if (keys[index[i]] == key) {
+                return index[i];
+            }
+        }
+        return NIL;
+    }
+
+    private void indexPut(int entry) {
+        if ((size + 1) * 2 > index.length) {
+            int[] old = index;
+            index = new int[old.length * 2];
+            Arrays.fill(index, NIL);
+            for (int e : old) {
+                if (e != NIL) {
+                    insertIndex(e);
+                }
+            }
+        }
+        insertIndex(entry);
+    }
+
+    private void insertIndex(int entry) {
+        int mask = index.length - 1;
+        int i = hash(keys[entry]) & mask;
+        while (index[i] != NIL) {
+            i = (i + 1) & mask;
+        }
+        index[i] = entry;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void indexRemove(int key) {
+        int mask = index.length - 1;
+        int i = hash(key) & mask;
+        while (index[i] != NIL && keys[index[i]] != key) {
+            i = (i + 1) & mask;
+        }
+        if (index[i] == NIL) {
+            return;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (index[j] == NIL) {
+                break;
+            }
+            int home = hash(keys[index[j]]) & mask;
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!stays) {
+                index[i] = index[j];
+                i = j;
+            }
+        }
+        index[i] = NIL;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
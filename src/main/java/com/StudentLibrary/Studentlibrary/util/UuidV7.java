@@ -0,0 +1,48 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs in the version 7 layout: 48 bits of Unix milliseconds, then a 12-bit
+ * sequence that keeps ids from the same millisecond increasing, then 62 random bits.
+ * Consecutive ids sort together, so inserts land at the right edge of a B-tree index
+ * instead of on random pages. Ids handed out by one JVM never repeat; across JVMs a clash
+ * needs the same millisecond, sequence and 62 random bits. Callers that cannot enforce
+ * uniqueness in the database (e.g. on a partitioned table) rely on this.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (millis << 12) | sequence of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp;
+        while (true) {
+            long last = LAST.get();
+            // A full sequence carries into the next millisecond, keeping ids strictly increasing
+            stamp = Math.max(now, last + 1);
+            if (LAST.compareAndSet(last, stamp)) {
+                break;
+            }
+        }
+        long mostSigBits = ((stamp >>> 12) << 16) | 0x7000L | (stamp & 0xFFFL);
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /** Creation time in epoch millis of a version 7 id, or -1 for other versions. */
+    public static long timestampOf(UUID uuid) {
+        if (uuid.version() != 7) {
+            return -1;
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,174 @@
+package com.StudentLibrary.Studentlibrary.Controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileResponderTest {
+
+    private static final int LENGTH = 100;
+    private static final String ETAG = "abc123";
+    private static final String CACHE_CONTROL = "max-age=60";
+
+    @TempDir
+    Path dir;
+
+    Path file;
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        file = dir.resolve("cover.jpg");
+        Files.write(file, new byte[LENGTH]);
+    }
+
+    @Test
+    void noRangeServesTheWholeFile() throws IOException {
+        ResponseEntity<?> response = serve(get(null));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(LENGTH, response.getHeaders().getContentLength());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        closeBody(response);
+    }
+
+    @Test
+    void singleRangesAreServedAsPartialContent() throws IOException {
+        assertPartial("bytes=0-9", 0, 9);
+        assertPartial("bytes=90-", 90, 99);
+        assertPartial("bytes=-5", 95, 99);
+        // An end past the file is cut to its last byte
+        assertPartial("bytes=50-100000", 50, 99);
+        // A suffix longer than the file is the whole file
+        assertPartial("bytes=-500", 0, 99);
+    }
+
+    @Test
+    void malformedRangesAreIgnored() throws IOException {
+        String[] headers = {"bytes=abc", "bytes=", "bytes=5-2", "items=0-5", "0-5", "bytes=--1", "bytes=1-2-3"};
+        for (String header : headers) {
+            ResponseEntity<?> response = serve(get(header));
+            assertEquals(HttpStatus.OK, response.getStatusCode(), header);
+            assertEquals(LENGTH, response.getHeaders().getContentLength(), header);
+            closeBody(response);
+        }
+    }
+
+    @Test
+    void multipleRangesGetTheWholeFile() throws IOException {
+        StringBuilder many = new StringBuilder("bytes=0-0");
+        for (int i = 2; i < 400; i += 2) {
+            many.append(',').append(i % LENGTH).append('-').append(i % LENGTH);
+        }
+        for (String header : new String[] {"bytes=0-1,5-6", "bytes=0-1, -5", many.toString()}) {
+            ResponseEntity<?> response = serve(get(header));
+            assertEquals(HttpStatus.OK, response.getStatusCode(), header);
+            assertEquals(LENGTH, response.getHeaders().getContentLength(), header);
+            closeBody(response);
+        }
+    }
+
+    @Test
+    void rangesStartingPastTheEndAreNotSatisfiable() throws IOException {
+        for (String header : new String[] {"bytes=100-", "bytes=500-600", "bytes=-0"}) {
+            ResponseEntity<?> response = serve(get(header));
+            assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode(), header);
+            assertEquals("bytes */" + LENGTH, response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        }
+    }
+
+    @Test
+    void ifRangeAppliesTheRangeOnlyWhileTheValidatorMatches() throws IOException {
+        MockHttpServletRequest matching = get("bytes=0-9");
+        matching.addHeader(HttpHeaders.IF_RANGE, "\"" + ETAG + "\"");
+        assertEquals(HttpStatus.PARTIAL_CONTENT, serve(matching).getStatusCode());
+
+        MockHttpServletRequest stale = get("bytes=0-9");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        ResponseEntity<?> response = serve(stale);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        closeBody(response);
+
+        MockHttpServletRequest garbage = get("bytes=0-9");
+        garbage.addHeader(HttpHeaders.IF_RANGE, "not a date");
+        response = serve(garbage);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        closeBody(response);
+    }
+
+    @Test
+    void headIgnoresTheRangeAndHasNoBody() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/cover");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        ResponseEntity<?> response = serve(request);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(LENGTH, response.getHeaders().getContentLength());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void sendfileGetsTheRangeAsRequestAttributes() throws IOException {
+        MockHttpServletRequest request = get("bytes=10-19");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        ResponseEntity<?> response = serve(request);
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(file.toRealPath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    @Test
+    void matchingEtagWritesNotModified() throws IOException {
+        MockHttpServletRequest request = get("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + ETAG + "\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        assertNull(FileResponder.serve(file, MediaType.IMAGE_JPEG, ETAG, CACHE_CONTROL,
+            new ServletWebRequest(request, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        assertEquals(CACHE_CONTROL, servletResponse.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    private void assertPartial(String header, long start, long end) throws IOException {
+        ResponseEntity<?> response = serve(get(header));
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode(), header);
+        assertEquals("bytes " + start + "-" + end + "/" + LENGTH, response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(end - start + 1, response.getHeaders().getContentLength(), header);
+        ResourceRegion region = (ResourceRegion) response.getBody();
+        assertEquals(start, region.getPosition());
+        assertEquals(end - start + 1, region.getCount());
+    }
+
+    private ResponseEntity<?> serve(MockHttpServletRequest request) throws IOException {
+        return FileResponder.serve(file, MediaType.IMAGE_JPEG, ETAG, CACHE_CONTROL,
+            new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    private static MockHttpServletRequest get(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cover");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    private static void closeBody(ResponseEntity<?> response) throws IOException {
+        if (response.getBody() instanceof InputStreamResource) {
+            ((InputStreamResource) response.getBody()).getInputStream().close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.StudentLibrary.Studentlibrary.dto.ImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CSV import throughput: 200k books by 5k distinct authors, about half of the authors new,
+ * through BookImportService into the configured database. The target is 20k books/s against
+ * a local PostgreSQL. Run with {@code mvn test -Dtest=BookImportBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookImportBenchmark {
+
+    private static final int BOOKS = 200_000;
+    private static final int AUTHORS = 5_000;
+    private static final String PREFIX = "bench-import-";
+
+    @Autowired
+    BookImportService bookImportService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvImportThroughput() {
+        for (int i = 0; i < AUTHORS / 2; i++) {
+            jdbcTemplate.update("insert into author (name, email, age, country) values (?, ?, 0, ?)",
+                    PREFIX + "author-" + i, PREFIX + i + "@library.com", "IN");
+        }
+        StringBuilder csv = new StringBuilder("title,genre,author_name,author_email,author_country,published_year,description\n");
+        for (int i = 0; i < BOOKS; i++) {
+            int author = i % AUTHORS;
+            csv.append(PREFIX).append(i).append(",PHYSICS,").append(PREFIX).append("author-").append(author)
+                    .append(',').append(PREFIX).append(author).append("@library.com,IN,").append(1950 + i % 70)
+                    .append(",\"A description, with a comma\"\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        ImportReport report = bookImportService.importBooks(BookImportService.Format.CSV, new ByteArrayInputStream(body));
+
+        System.out.printf("books=%d authorsCreated=%d rejected=%d elapsed=%d ms  %.0f books/s%n",
+                report.getBooksInserted(), report.getAuthorsCreated(), report.getRejected(),
+                report.getElapsedMs(), report.getBooksPerSecond());
+        assertEquals(ImportReport.Status.COMPLETED, report.getStatus());
+        assertEquals(BOOKS, report.getBooksInserted());
+        assertEquals(AUTHORS - AUTHORS / 2, report.getAuthorsCreated());
+    }
+
+    @AfterEach
+    void removeBenchRows() {
+        jdbcTemplate.update("delete from book where name like ?", PREFIX + "%");
+        jdbcTemplate.update("delete from author where email like ?", PREFIX + "%");
+    }
+}
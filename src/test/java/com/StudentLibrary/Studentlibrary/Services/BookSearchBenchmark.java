@@ -0,0 +1,107 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.StudentLibrary.Studentlibrary.util.Bm25Index;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Heap used by the BM25 index over 1M synthetic books, and latency of two-term queries
+ * against it. Terms follow a Zipf distribution over a 50k-word vocabulary whose 100 most
+ * frequent words are dropped, as the analyzer drops stopwords, and are weighted like the
+ * search service's fields (name x3, author x2, description x1). Needs no database;
+ * run with {@code mvn test -Dtest=BookSearchBenchmark -Dbenchmark=true} and a heap of 2GB or more.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookSearchBenchmark {
+
+    private static final int BOOKS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int STOPWORDS = 100;
+    private static final int QUERIES = 5000;
+    private static final int WARMUP_QUERIES = 1000;
+
+    @Test
+    void twoTermQueriesOverAMillionBooks() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        double[] zipf = zipfCumulative(VOCABULARY);
+
+        long heapBefore = usedHeap();
+        Bm25Index index = new Bm25Index();
+        long start = System.nanoTime();
+        for (int bookId = 1; bookId <= BOOKS; bookId++) {
+            Map<String, Integer> terms = new HashMap<>();
+            addWords(terms, random, words, zipf, 2 + random.nextInt(6), 3);
+            addWords(terms, random, words, zipf, 2, 2);
+            addWords(terms, random, words, zipf, 10 + random.nextInt(30), 1);
+            index.put(bookId, terms);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapBytes = usedHeap() - heapBefore;
+
+        long[] nanos = new long[QUERIES];
+        for (int i = -WARMUP_QUERIES; i < QUERIES; i++) {
+            List<String> query = Arrays.asList(words[sample(random, zipf)], words[sample(random, zipf)]);
+            long queryStart = System.nanoTime();
+            index.search(query, 0, 20);
+            if (i >= 0) {
+                nanos[i] = System.nanoTime() - queryStart;
+            }
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("build %d ms, heap %d MB%n", buildMillis, heapBytes / (1024 * 1024));
+        System.out.printf("search p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+            nanos[QUERIES / 2] / 1e6, nanos[QUERIES * 99 / 100] / 1e6, nanos[QUERIES - 1] / 1e6);
+        assertEquals(BOOKS, index.size());
+    }
+
+    private static void addWords(Map<String, Integer> terms, Random random, String[] words, double[] zipf,
+                                 int count, int weight) {
+        for (int i = 0; i < count; i++) {
+            terms.merge(words[sample(random, zipf)], weight, Integer::sum);
+        }
+    }
+
+    private static double[] zipfCumulative(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(Random random, double[] cumulative) {
+        while (true) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            index = Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+            if (index >= STOPWORDS) {
+                return index;
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,87 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.StudentLibrary.Studentlibrary.util.PrefixSuggester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Typeahead lookups the way BookSuggestService serves them (fold the prefix into a reused
+ * buffer, then take the trie node's shared completion list) over 1M synthetic titles:
+ * latency percentiles and bytes allocated per keystroke once the lists are warm. Needs no
+ * database; run with {@code mvn test -Dtest=BookSuggestBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookSuggestBenchmark {
+
+    private static final int TITLES = 1_000_000;
+    private static final int MAX_RESULTS = 10;
+    private static final int LOOKUPS = 200000;
+    private static final String[] WORDS = {
+        "the", "history", "of", "modern", "physics", "a", "guide", "to", "ancient", "rome",
+        "harry", "potter", "and", "stone", "introduction", "algorithms", "data", "structures",
+        "war", "peace", "garden", "secret", "night", "river", "winter", "tales", "principles",
+        "economics", "chemistry", "organic", "poems", "collected", "letters", "journey", "sea"
+    };
+
+    @Test
+    void keystrokesReuseTheSharedCompletionLists() {
+        Random random = new Random(42);
+        PrefixSuggester.Builder<String> builder = PrefixSuggester.builder(MAX_RESULTS);
+        String[] titles = new String[TITLES];
+        for (int i = 0; i < TITLES; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 2 + random.nextInt(4); w > 0; w--) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            titles[i] = title.append(i).toString();
+            builder.add(titles[i], random.nextInt(1000), titles[i]);
+        }
+        long buildStart = System.nanoTime();
+        PrefixSuggester<String> suggester = builder.build();
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        // Prefixes as typed: the first 1..12 characters of random titles
+        String[] prefixes = new String[4096];
+        for (int i = 0; i < prefixes.length; i++) {
+            String title = titles[random.nextInt(TITLES)];
+            prefixes[i] = title.substring(0, 1 + random.nextInt(Math.min(12, title.length())));
+        }
+
+        char[] buffer = new char[64];
+        int found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += lookup(suggester, prefixes[i % prefixes.length], buffer).size();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] nanos = new long[LOOKUPS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            found += lookup(suggester, prefixes[i % prefixes.length], buffer).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long bytesPerLookup = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / LOOKUPS;
+        Arrays.sort(nanos);
+
+        System.out.printf("build %d ms for %d titles%n", buildMillis, suggester.size());
+        System.out.printf("lookup p50 %d ns, p99 %d ns, %d bytes allocated per lookup%n",
+            nanos[LOOKUPS / 2], nanos[LOOKUPS * 99 / 100], bytesPerLookup);
+        assertTrue(found > 0);
+        // Warm lookups only walk the trie, so anything near a list's size means one is built per call
+        assertTrue(bytesPerLookup < 64, "allocated " + bytesPerLookup + " bytes per lookup");
+    }
+
+    private static List<String> lookup(PrefixSuggester<String> suggester, String prefix, char[] buffer) {
+        int length = PrefixSuggester.normalize(prefix, buffer, true);
+        return suggester.completions(buffer, length);
+    }
+}
@@ -0,0 +1,78 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * getBookById latency with the catalog cache cold (every call invalidated first) and warm,
+ * and the number of SQL statements the warm path issues. Needs a database; run with
+ * {@code mvn test -Dtest=CatalogCacheBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogCacheBenchmark {
+
+    private static final int CALLS = 20000;
+    private static final String PREFIX = "bench-cache-";
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    CatalogCache catalogCache;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByIdHitPathSkipsTheDatabase() {
+        int bookId = bookRepository.save(new Book(PREFIX + "book", Genre.PHYSICS, null)).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            catalogCache.invalidateBook(bookId);
+            bookService.getBookById(bookId);
+        }
+        long coldNanos = (System.nanoTime() - start) / CALLS;
+
+        bookService.getBookById(bookId);
+        statistics.clear();
+        start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            bookService.getBookById(bookId);
+        }
+        long warmNanos = (System.nanoTime() - start) / CALLS;
+        long statements = statistics.getPrepareStatementCount();
+
+        System.out.printf("cold  %8d ns/op%nwarm  %8d ns/op  statements=%d%n", coldNanos, warmNanos, statements);
+        System.out.println(catalogCache.getStats());
+        assertEquals(0, statements);
+    }
+
+    @AfterEach
+    void removeBenchRows() {
+        jdbcTemplate.update("delete from book where name like ?", PREFIX + "%");
+        catalogCache.invalidateBook(0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full catalog listing through /api/books/public/all (entities, logged and serialized in
+ * one response) against walking /api/books/public/catalog page by page, at 10k, 100k and
+ * 1M books. Seeds bench rows with plain JDBC and removes them afterwards. Needs a database
+ * and a large heap for the 1M run; run with
+ * {@code mvn test -Dtest=CatalogListingBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogListingBenchmark {
+
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final int PAGE_SIZE = 500;
+    private static final int INSERT_BATCH = 10_000;
+    private static final String PREFIX = "bench-catalog-";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CatalogCache catalogCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void listingThroughputByCatalogSize() throws Exception {
+        System.out.println("   books  all: ms    rows/s     bytes  catalog: ms    rows/s     bytes  first page ms");
+        for (int books : SIZES) {
+            seed(books);
+
+            // Cold list cache, as after any book write
+            catalogCache.invalidateBook(0);
+            long start = System.nanoTime();
+            String allResult;
+            try {
+                MvcResult result = mockMvc.perform(get("/api/books/public/all")).andReturn();
+                long bytes = result.getResponse().getContentAsByteArray().length;
+                allResult = summary(start, books, bytes);
+            } catch (OutOfMemoryError e) {
+                allResult = String.format("%9s %9s %9s", "OOM", "-", "-");
+            }
+            catalogCache.invalidateBook(0);
+
+            start = System.nanoTime();
+            long bytes = 0;
+            int rows = 0;
+            String cursor = null;
+            do {
+                String url = "/api/books/public/catalog?size=" + PAGE_SIZE + (cursor == null ? "" : "&cursor=" + cursor);
+                byte[] body = mockMvc.perform(get(url)).andReturn().getResponse().getContentAsByteArray();
+                bytes += body.length;
+                JsonNode page = objectMapper.readTree(body);
+                rows += page.get("items").size();
+                cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            } while (cursor != null);
+            String catalogResult = summary(start, rows, bytes);
+
+            start = System.nanoTime();
+            int requests = 200;
+            for (int i = 0; i < requests; i++) {
+                mockMvc.perform(get("/api/books/public/catalog?size=" + PAGE_SIZE)).andReturn();
+            }
+            double firstPageMillis = (System.nanoTime() - start) / 1e6 / requests;
+
+            System.out.printf("%8d  %s  %s  %13.2f%n", books, allResult, catalogResult, firstPageMillis);
+        }
+    }
+
+    @AfterAll
+    void removeBenchRows() {
+        jdbcTemplate.update("delete from book where name like ?", PREFIX + "%");
+        catalogCache.invalidateBook(0);
+    }
+
+    // Tops the bench rows up to the target; descriptions make the entity path pay for its LOB
+    private void seed(int books) {
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from book where name like ?",
+                Integer.class, PREFIX + "%");
+        String description = "x".repeat(1000);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = existing; i < books; i++) {
+            batch.add(new Object[] {PREFIX + i, "PHYSICS", true, 1950 + i % 70, description});
+            if (batch.size() == INSERT_BATCH || i == books - 1) {
+                jdbcTemplate.batchUpdate("insert into book (name, genre, available, published_year, description, version) "
+                        + "values (?, ?, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String summary(long startNanos, long rows, long bytes) {
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        return String.format("%9d %9.0f %9d", millis, rows * 1000.0 / Math.max(1, millis), bytes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+import com.StudentLibrary.Studentlibrary.Model.HoldStatus;
+import com.StudentLibrary.Studentlibrary.Model.Student;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.Repositories.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class HoldServiceTest {
+
+    private static final String PREFIX = "test-hold-";
+
+    @Autowired
+    HoldService holdService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancellingAReadyHoldPutsTheBookBackOnTheShelf() throws Exception {
+        int bookId = bookRepository.save(new Book(PREFIX + "book", Genre.PHYSICS, null)).getId();
+        int borrower = saveStudent("borrower");
+        int holder = saveStudent("holder");
+
+        transactionService.issueBooks(borrower, bookId);
+        holdService.placeHold(holder, bookId);
+        transactionService.returnBooks(borrower, bookId);
+        assertEquals(HoldStatus.READY, holdService.getPosition(holder, bookId).getStatus());
+
+        // Cache the on-hold copy, so a stale entry would be served after the cancel
+        Book held = bookService.getBookById(bookId);
+        assertFalse(held.isAvailable());
+        assertEquals(holder, held.getHoldStudentId());
+
+        holdService.cancelHold(holder, bookId);
+
+        Book book = bookService.getBookById(bookId);
+        assertTrue(book.isAvailable());
+        assertNull(book.getHoldStudentId());
+        assertNull(book.getHoldExpiresAt());
+    }
+
+    private int saveStudent(String name) {
+        String email = PREFIX + System.nanoTime() + "-" + name + "@library.com";
+        return studentRepository.save(new Student(PREFIX + name, email, 20, "IN")).getId();
+    }
+
+    // Circulation rows first, so the foreign keys allow removing the books and students
+    @AfterEach
+    void removeTestRows() {
+        String testBooks = "(select id from book where name like ?)";
+        jdbcTemplate.update("delete from transaction where book_id in " + testBooks, PREFIX + "%");
+        jdbcTemplate.update("delete from loan where book_id in " + testBooks, PREFIX + "%");
+        jdbcTemplate.update("delete from book_hold where book_id in " + testBooks, PREFIX + "%");
+        jdbcTemplate.update("delete from book where name like ?", PREFIX + "%");
+        jdbcTemplate.update("delete from student where email_id like ?", PREFIX + "%");
+    }
+}
@@ -0,0 +1,98 @@
+package com.StudentLibrary.Studentlibrary.Services;
+
+import com.StudentLibrary.Studentlibrary.Model.Book;
+import com.StudentLibrary.Studentlibrary.Model.Genre;
+import com.StudentLibrary.Studentlibrary.Model.Student;
+import com.StudentLibrary.Studentlibrary.Repositories.BookRepository;
+import com.StudentLibrary.Studentlibrary.Repositories.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issue/return throughput with 1-64 concurrent clients competing for a small set of hot books.
+ * Needs a database; run with {@code mvn test -Dtest=IssueContentionBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IssueContentionBenchmark {
+
+    private static final int HOT_BOOKS = 8;
+    private static final long RUN_MILLIS = 5000;
+    private static final String PREFIX = "bench-contention-";
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void issueThroughputByClientCount() throws Exception {
+        List<Integer> bookIds = new ArrayList<>();
+        for (int i = 0; i < HOT_BOOKS; i++) {
+            bookIds.add(bookRepository.save(new Book(PREFIX + "book-" + i, Genre.PHYSICS, null)).getId());
+        }
+        List<Integer> studentIds = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String email = PREFIX + System.nanoTime() + "-" + i + "@library.com";
+            studentIds.add(studentRepository.save(new Student(PREFIX + i, email, 20, "IN")).getId());
+        }
+
+        System.out.println("clients  ops/s  rejected/s");
+        for (int clients = 1; clients <= 64; clients *= 2) {
+            AtomicLong completed = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            long deadline = System.currentTimeMillis() + RUN_MILLIS;
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            for (int c = 0; c < clients; c++) {
+                int studentId = studentIds.get(c);
+                pool.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        int bookId = bookIds.get(ThreadLocalRandom.current().nextInt(HOT_BOOKS));
+                        try {
+                            transactionService.issueBooks(studentId, bookId);
+                            transactionService.returnBooks(studentId, bookId);
+                            completed.addAndGet(2);
+                        } catch (Exception e) {
+                            // Book held by another client; counts as a clean rejection, not a conflict storm
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(RUN_MILLIS * 2, TimeUnit.MILLISECONDS);
+            double seconds = RUN_MILLIS / 1000.0;
+            System.out.printf("%7d  %5.0f  %10.0f%n", clients, completed.get() / seconds, rejected.get() / seconds);
+        }
+    }
+
+    // Circulation rows first, so the foreign keys allow removing the books and students
+    @AfterEach
+    void removeBenchRows() {
+        String benchBooks = "(select id from book where name like ?)";
+        jdbcTemplate.update("delete from transaction where book_id in " + benchBooks, PREFIX + "%");
+        jdbcTemplate.update("delete from loan where book_id in " + benchBooks, PREFIX + "%");
+        jdbcTemplate.update("delete from book_hold where book_id in " + benchBooks, PREFIX + "%");
+        jdbcTemplate.update("delete from book where name like ?", PREFIX + "%");
+        jdbcTemplate.update("delete from student where email_id like ?", PREFIX + "%");
+    }
+}
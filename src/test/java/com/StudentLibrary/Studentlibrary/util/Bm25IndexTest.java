@@ -0,0 +1,186 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Test
+    void scoresAndRankingMatchBruteForceBm25() {
+        Random random = new Random(8);
+        Bm25Index index = new Bm25Index();
+        Map<Integer, Map<String, Integer>> docs = new HashMap<>();
+        for (int docId = 1; docId <= 2000; docId++) {
+            Map<String, Integer> terms = randomDoc(random);
+            docs.put(docId, terms);
+            index.put(docId, terms);
+        }
+        assertEquals(docs.size(), index.size());
+
+        for (int q = 0; q < 200; q++) {
+            List<String> query = Arrays.asList("t" + random.nextInt(40), "t" + random.nextInt(40));
+            List<double[]> expected = bruteForce(docs, query);
+
+            Bm25Index.Hits hits = index.search(query, 0, 10);
+            assertEquals(expected.size(), hits.getTotal(), "total for " + query);
+            assertEquals(Math.min(10, expected.size()), hits.getDocIds().length);
+            for (int i = 0; i < hits.getDocIds().length; i++) {
+                assertEquals(expected.get(i)[1], hits.getScores()[i], 1e-3, "score " + i + " for " + query);
+                // Float rounding may swap near-equal scores, so compare ids only when scores are apart
+                if (i + 1 < expected.size() && expected.get(i)[1] - expected.get(i + 1)[1] > 1e-3
+                        && (i == 0 || expected.get(i - 1)[1] - expected.get(i)[1] > 1e-3)) {
+                    assertEquals((int) expected.get(i)[0], hits.getDocIds()[i], "rank " + i + " for " + query);
+                }
+            }
+        }
+    }
+
+    @Test
+    void pagesTileTheFullRanking() {
+        Random random = new Random(9);
+        Bm25Index index = new Bm25Index();
+        for (int docId = 0; docId < 500; docId++) {
+            index.put(docId, randomDoc(random));
+        }
+        List<String> query = Arrays.asList("t1", "t2", "t3");
+        Bm25Index.Hits all = index.search(query, 0, 1000);
+        List<Integer> paged = new ArrayList<>();
+        for (int offset = 0; offset < all.getTotal() + 7; offset += 7) {
+            Bm25Index.Hits page = index.search(query, offset, 7);
+            assertEquals(all.getTotal(), page.getTotal());
+            for (int docId : page.getDocIds()) {
+                paged.add(docId);
+            }
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int docId : all.getDocIds()) {
+            expected.add(docId);
+        }
+        assertEquals(expected, paged);
+        assertEquals(0, index.search(query, all.getTotal(), 10).getDocIds().length);
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsDropTheirOldTerms() {
+        Bm25Index index = new Bm25Index();
+        index.put(1, Map.of("alpha", 1, "beta", 2));
+        index.put(2, Map.of("alpha", 1));
+        index.put(1, Map.of("gamma", 1));
+
+        assertArrayEquals(new int[] {2}, index.search(List.of("alpha"), 0, 10).getDocIds());
+        assertEquals(0, index.search(List.of("beta"), 0, 10).getTotal());
+        assertArrayEquals(new int[] {1}, index.search(List.of("gamma"), 0, 10).getDocIds());
+
+        index.remove(2);
+        index.remove(2);
+        index.remove(99);
+        assertEquals(1, index.size());
+        assertEquals(0, index.search(List.of("alpha"), 0, 10).getTotal());
+
+        index.put(1, Collections.emptyMap());
+        assertEquals(0, index.size());
+        assertEquals(0, index.search(List.of("gamma"), 0, 10).getTotal());
+    }
+
+    @Test
+    void manyReplacementsSurviveGenerationWrapAndCompaction() {
+        Bm25Index index = new Bm25Index();
+        for (int docId = 0; docId < 100; docId++) {
+            index.put(docId, Map.of("common", 1, "doc" + docId, 1));
+        }
+        // Well past the one-byte generation and the stale-posting compaction threshold
+        for (int round = 0; round < 400; round++) {
+            for (int docId = 0; docId < 100; docId++) {
+                index.put(docId, Map.of("common", 1, "doc" + docId, 1, "round" + round, 1));
+            }
+        }
+        assertEquals(100, index.size());
+        assertEquals(100, index.search(List.of("common"), 0, 1000).getTotal());
+        assertArrayEquals(new int[] {42}, index.search(List.of("doc42"), 0, 10).getDocIds());
+        assertEquals(100, index.search(List.of("round399"), 0, 1000).getTotal());
+        assertEquals(0, index.search(List.of("round398"), 0, 1000).getTotal());
+
+        // Too few stale postings to trigger compaction, so only the generation limit forces it
+        Bm25Index single = new Bm25Index();
+        for (int round = 0; round < 300; round++) {
+            single.put(7, Map.of("solo", 1, "round" + round, 1));
+        }
+        assertEquals(1, single.search(List.of("solo"), 0, 10).getTotal());
+        assertEquals(1, single.search(List.of("round299"), 0, 10).getTotal());
+        for (int round = 0; round < 299; round++) {
+            assertEquals(0, single.search(List.of("round" + round), 0, 10).getTotal(), "round" + round);
+        }
+    }
+
+    @Test
+    void repeatedQueryTermsWeighMore() {
+        Bm25Index index = new Bm25Index();
+        index.put(1, Map.of("red", 2, "car", 1));
+        index.put(2, Map.of("red", 1, "car", 2));
+        index.put(3, Map.of("blue", 1));
+        assertEquals(1, index.search(List.of("red", "red", "car"), 0, 1).getDocIds()[0]);
+        assertEquals(2, index.search(List.of("red", "car", "car"), 0, 1).getDocIds()[0]);
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        Bm25Index.Hits hits = new Bm25Index().search(List.of("anything"), 0, 10);
+        assertEquals(0, hits.getTotal());
+        assertEquals(0, hits.getDocIds().length);
+    }
+
+    private static Map<String, Integer> randomDoc(Random random) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (int i = 1 + random.nextInt(12); i > 0; i--) {
+            // Skewed towards low term numbers so document frequencies vary
+            int term = (int) Math.abs(random.nextGaussian() * 12) % 40;
+            terms.merge("t" + term, 1 + random.nextInt(3), Integer::sum);
+        }
+        return terms;
+    }
+
+    // {docId, score} for every matching document, best first, lower id first on ties
+    private static List<double[]> bruteForce(Map<Integer, Map<String, Integer>> docs, List<String> query) {
+        double averageLength = docs.values().stream()
+            .mapToInt(terms -> terms.values().stream().mapToInt(Integer::intValue).sum())
+            .average().orElse(0);
+        Map<String, Integer> queryFrequencies = new HashMap<>();
+        for (String term : query) {
+            queryFrequencies.merge(term, 1, Integer::sum);
+        }
+        List<double[]> scored = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, Integer>> doc : docs.entrySet()) {
+            Map<String, Integer> terms = doc.getValue();
+            int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+            double score = 0;
+            boolean matched = false;
+            for (Map.Entry<String, Integer> term : queryFrequencies.entrySet()) {
+                Integer tf = terms.get(term.getKey());
+                if (tf == null) {
+                    continue;
+                }
+                matched = true;
+                long df = docs.values().stream().filter(other -> other.containsKey(term.getKey())).count();
+                double idf = Math.log(1 + (docs.size() - df + 0.5) / (df + 0.5)) * term.getValue();
+                score += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+            }
+            if (matched) {
+                scored.add(new double[] {doc.getKey(), score});
+            }
+        }
+        scored.sort((a, b) -> a[1] != b[1] ? Double.compare(b[1], a[1]) : Double.compare(a[0], b[0]));
+        return scored;
+    }
+}
@@ -0,0 +1,133 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    // 1% of 1000 is the window, so the main region holds 990
+    private static final long MAX_WEIGHT = 1000;
+    private static final int ENTRY_WEIGHT = 90;
+
+    @Test
+    void entryBoundedCacheEvictsTheLeastRecentlyUsed() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3, 60000);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        assertEquals("one", cache.get(1));
+        cache.put(4, "four");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("four", cache.get(4));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3, 0);
+        cache.put(1, "one");
+        assertNull(cache.get(1));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void weighedCacheStaysUnderItsWeight() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(100, 60000, (key, value) -> value.length());
+        cache.put(1, "x".repeat(40));
+        cache.put(2, "x".repeat(40));
+        cache.put(3, "x".repeat(40));
+        assertEquals(80, cache.getWeight());
+        assertNull(cache.get(1));
+
+        // Too heavy for the whole cache, so it is not cached and nothing is evicted for it
+        cache.put(4, "x".repeat(101));
+        assertNull(cache.get(4));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void rejectedCandidateEvictsNothing() {
+        BoundedCache<Integer, Integer> cache = coldThenHot();
+        touch(cache, 100, 2);
+        // Needs eight victims, and only the five cold ones at the head are less popular than it
+        cache.put(100, 8 * ENTRY_WEIGHT);
+
+        assertEquals(10, cache.size());
+        assertEquals(10 * ENTRY_WEIGHT, cache.getWeight());
+        for (int key = 0; key < 10; key++) {
+            assertNotNull(cache.get(key), "entry " + key);
+        }
+        assertNull(cache.get(100));
+    }
+
+    @Test
+    void candidateHeavierThanTheMainRegionIsRejectedUpFront() {
+        BoundedCache<Integer, Integer> cache = coldThenHot();
+        // More popular than everything cached, but no amount of eviction would make room for it
+        touch(cache, 100, 10);
+        cache.put(100, (int) MAX_WEIGHT - 5);
+
+        assertEquals(10, cache.size());
+        assertEquals(0, cache.getEvictions());
+        assertNull(cache.get(100));
+    }
+
+    @Test
+    void popularCandidateDisplacesOnlyTheVictimsItNeeds() {
+        BoundedCache<Integer, Integer> cache = coldThenHot();
+        touch(cache, 100, 3);
+        // 900 + 150 is 60 over the main region, which the least recently used entry covers
+        cache.put(100, 150);
+
+        assertEquals(10, cache.size());
+        assertEquals(9 * ENTRY_WEIGHT + 150, cache.getWeight());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(0));
+        assertEquals(Integer.valueOf(150), cache.get(100));
+        for (int key = 1; key < 10; key++) {
+            assertNotNull(cache.get(key), "entry " + key);
+        }
+    }
+
+    @Test
+    void invalidationDuringALoadKeepsTheLoadedValueOut() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10, 60000);
+        String loaded = cache.getOrLoad(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+        assertEquals("stale", loaded);
+        assertEquals(0, cache.size());
+
+        assertEquals("fresh", cache.getOrLoad(1, key -> "fresh"));
+        assertEquals("fresh", cache.get(1));
+    }
+
+    /**
+     * A full main region with five never-read entries at its least recently used end and five
+     * entries read five times each after them. Values are their own weights.
+     */
+    private static BoundedCache<Integer, Integer> coldThenHot() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(MAX_WEIGHT, 60000, (key, value) -> value, 64);
+        for (int key = 0; key < 10; key++) {
+            cache.put(key, ENTRY_WEIGHT);
+        }
+        for (int key = 5; key < 10; key++) {
+            touch(cache, key, 5);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(0, cache.getEvictions());
+        return cache;
+    }
+
+    private static void touch(BoundedCache<Integer, Integer> cache, int key, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.get(key);
+        }
+    }
+}
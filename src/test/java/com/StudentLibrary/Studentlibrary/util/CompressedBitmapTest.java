@@ -0,0 +1,113 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    // Three high-16-bit groups, so values land in several containers
+    private static final int RANGE = 3 << 16;
+
+    @Test
+    void randomOperationsMatchBitSet() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            CompressedBitmap bitmap = new CompressedBitmap();
+            BitSet reference = new BitSet();
+            // Alternate between sparse groups (array containers) and dense ones (bitmap containers)
+            int range = round % 2 == 0 ? RANGE : 1 << 16;
+            int operations = round % 2 == 0 ? 2000 : 20000;
+            for (int i = 0; i < operations; i++) {
+                int value = random.nextInt(range);
+                if (random.nextInt(4) == 0) {
+                    assertEquals(reference.get(value), bitmap.remove(value), "remove " + value);
+                    reference.clear(value);
+                } else {
+                    assertEquals(!reference.get(value), bitmap.add(value), "add " + value);
+                    reference.set(value);
+                }
+            }
+            assertMatches(reference, bitmap);
+        }
+    }
+
+    @Test
+    void containersConvertBothWaysAroundTheArrayLimit() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet reference = new BitSet();
+        for (int value = 0; value < 5000; value++) {
+            bitmap.add(value * 3);
+            reference.set(value * 3);
+        }
+        assertMatches(reference, bitmap);
+        for (int value = 0; value < 5000; value += 2) {
+            bitmap.remove(value * 3);
+            reference.clear(value * 3);
+        }
+        assertMatches(reference, bitmap);
+        for (int value = 0; value < 5000; value++) {
+            bitmap.remove(value * 3);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.getCardinality());
+    }
+
+    @Test
+    void andMatchesBitSetAcrossContainerKinds() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            BitSet left = new BitSet();
+            BitSet right = new BitSet();
+            CompressedBitmap a = randomBitmap(random, left, 1 + random.nextInt(20000));
+            CompressedBitmap b = randomBitmap(random, right, 1 + random.nextInt(20000));
+            BitSet expected = (BitSet) left.clone();
+            expected.and(right);
+
+            assertMatches(expected, CompressedBitmap.and(a, b));
+            assertEquals(expected.cardinality(), CompressedBitmap.andCardinality(a, b));
+            assertEquals(expected.cardinality(), CompressedBitmap.andCardinality(b, a));
+        }
+    }
+
+    @Test
+    void fillPagesThroughValuesInOrder() {
+        Random random = new Random(11);
+        BitSet reference = new BitSet();
+        CompressedBitmap bitmap = randomBitmap(random, reference, 30000);
+        int[] expected = reference.stream().toArray();
+        for (int offset : new int[] {0, 1, 4095, 4096, 10000, expected.length - 3, expected.length, expected.length + 5}) {
+            int[] page = new int[50];
+            int found = bitmap.fill(offset, page);
+            int wanted = Math.max(0, Math.min(page.length, expected.length - offset));
+            assertEquals(wanted, found, "offset " + offset);
+            for (int i = 0; i < found; i++) {
+                assertEquals(expected[offset + i], page[i], "offset " + offset + ", position " + i);
+            }
+        }
+    }
+
+    private static CompressedBitmap randomBitmap(Random random, BitSet reference, int count) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(RANGE);
+            bitmap.add(value);
+            reference.set(value);
+        }
+        return bitmap;
+    }
+
+    private static void assertMatches(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.getCardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        for (int value = 0; value < RANGE; value++) {
+            assertEquals(expected.get(value), actual.contains(value), "contains " + value);
+        }
+        int[] values = new int[expected.cardinality()];
+        assertEquals(values.length, actual.fill(0, values));
+        assertArrayEquals(expected.stream().toArray(), values);
+    }
+}
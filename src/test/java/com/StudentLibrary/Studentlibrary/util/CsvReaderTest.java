@@ -0,0 +1,122 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainAndEmptyFields() throws IOException {
+        CsvReader reader = reader("a,b,c\n,x,\n", 1000);
+        assertEquals(Arrays.asList("a", "b", "c"), reader.readRecord());
+        assertEquals(Arrays.asList("", "x", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = reader("\"Smith, J.\",\"say \"\"hi\"\"\",\"line one\nline two\",\"\"\nnext,row\n", 1000);
+        assertEquals(Arrays.asList("Smith, J.", "say \"hi\"", "line one\nline two", ""), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(Arrays.asList("next", "row"), reader.readRecord());
+        assertEquals(3, reader.getRecordLine());
+    }
+
+    @Test
+    void crlfLineEndsAreStrippedButQuotedOnesKept() throws IOException {
+        CsvReader reader = reader("id,name\r\n1,\"two\r\nlines\"\r\n2,last", 1000);
+        assertEquals(Arrays.asList("id", "name"), reader.readRecord());
+        assertEquals(Arrays.asList("1", "two\r\nlines"), reader.readRecord());
+        assertEquals(Arrays.asList("2", "last"), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void blankLinesBetweenRecordsAreSkipped() throws IOException {
+        CsvReader reader = reader("\n\na\r\n\r\n\nb\n\n", 1000);
+        assertEquals(Arrays.asList("a"), reader.readRecord());
+        assertEquals(3, reader.getRecordLine());
+        assertEquals(Arrays.asList("b"), reader.readRecord());
+        assertEquals(6, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        CsvReader reader = reader("ok\n\"never closed,\nstill open", 1000);
+        assertEquals(Arrays.asList("ok"), reader.readRecord());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("Unterminated"));
+    }
+
+    @Test
+    void oversizedRecordIsSkippedAndReadingResumes() throws IOException {
+        CsvReader reader = reader("short\n\"" + "x".repeat(50) + "\n,still quoted\",tail\nafter,it\n", 20);
+        assertEquals(Arrays.asList("short"), reader.readRecord());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("longer than 20"));
+        assertEquals(Arrays.asList("after", "it"), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+    }
+
+    @Test
+    void recordsSplitAcrossTinyReadsParseTheSame() throws IOException {
+        String input = "\"a,\"\"b\"\"\r\nc\",d\r\ne,\"\"\r\n\r\nlast,\"q\"";
+        List<List<String>> whole = readAll(new CsvReader(new StringReader(input), 1000));
+        List<List<String>> trickled = readAll(new CsvReader(new TrickleReader(input), 1000));
+        assertEquals(whole, trickled);
+        assertEquals(Arrays.asList(
+            Arrays.asList("a,\"b\"\r\nc", "d"),
+            Arrays.asList("e", ""),
+            Arrays.asList("last", "q")), whole);
+    }
+
+    private static CsvReader reader(String input, int maxRecordChars) {
+        return new CsvReader(new StringReader(input), maxRecordChars);
+    }
+
+    private static List<List<String>> readAll(CsvReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = reader.readRecord(); record != null; record = reader.readRecord()) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    // Hands out one character per read, with an empty read in between, so every peek crosses a refill
+    private static final class TrickleReader extends Reader {
+        private final String input;
+        private int position;
+        private boolean empty;
+
+        TrickleReader(String input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == input.length()) {
+                return -1;
+            }
+            empty = !empty;
+            if (empty) {
+                return 0;
+            }
+            buffer[offset] = input.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
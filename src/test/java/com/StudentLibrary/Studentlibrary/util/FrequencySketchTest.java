@@ -0,0 +1,48 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void countsIncrementsUpToFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        assertEquals(0, sketch.frequency("a"));
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment("a");
+            assertEquals(Math.min(i, 15), sketch.frequency("a"));
+        }
+        assertEquals(0, sketch.frequency("b"));
+    }
+
+    @Test
+    void countsNeverUnderestimateAcrossManyKeys() {
+        FrequencySketch sketch = new FrequencySketch(512);
+        for (int key = 0; key < 512; key++) {
+            for (int i = 0; i < key % 8; i++) {
+                sketch.increment(key);
+            }
+        }
+        for (int key = 0; key < 512; key++) {
+            assertTrue(sketch.frequency(key) >= key % 8, "key " + key);
+        }
+    }
+
+    @Test
+    void countsAreHalvedOnceTheSampleIsReached() {
+        // Sixteen longs wide, so the sample is 160 increments
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 12; i++) {
+            sketch.increment("hot");
+        }
+        int before = sketch.frequency("hot");
+        assertEquals(12, before);
+        for (int key = 0; sketch.frequency("hot") == before; key++) {
+            assertTrue(key < 1000, "never reset");
+            sketch.increment(key);
+        }
+        assertEquals(before / 2, sketch.frequency("hot"));
+    }
+}
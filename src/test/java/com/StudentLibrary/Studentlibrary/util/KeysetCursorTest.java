@@ -0,0 +1,58 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(new Date(1700000000123L), 42);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        assertEquals(cursor.getDate(), decoded.getDate());
+        assertEquals(42, decoded.getId());
+    }
+
+    @Test
+    void tokenIsUrlSafeWithoutPadding() {
+        String token = new KeysetCursor(new Date(Long.MAX_VALUE), Integer.MAX_VALUE).encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String[] tokens = {
+            "",
+            "not base64!",
+            "%%%",
+            encode("12345"),
+            encode("12345:"),
+            encode(":42"),
+            encode("abc:42"),
+            encode("12345:4x"),
+            encode("12345:1:2"),
+            encode("12345:99999999999"),
+            encode("99999999999999999999:1"),
+            new KeysetCursor(new Date(5), 7).encode() + "!"
+        };
+        for (String token : tokens) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(token), "token \"" + token + "\"");
+            assertTrue(e.getMessage().startsWith("Invalid cursor"));
+        }
+    }
+
+    @Test
+    void nullTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(null));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,77 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarcTextReaderTest {
+
+    @Test
+    void readsRecordsSeparatedByBlankLines() throws IOException {
+        MarcTextReader reader = reader(
+            "=LDR  00000nam  2200000 a 4500\n"
+                + "=001  ocm12345\n"
+                + "=100  1\\$aAusten, Jane.\n"
+                + "=245  10$aPride and prejudice /$cJane Austen.\n"
+                + "\n\n"
+                + "=245  00$aSecond title\n", 10000);
+
+        MarcTextReader.Record first = reader.readRecord();
+        assertEquals(1, reader.getRecordLine());
+        assertEquals("ocm12345", first.getControlField("001"));
+        assertEquals("Austen, Jane.", first.getSubfield("100", 'a'));
+        assertEquals("Pride and prejudice /", first.getSubfield("245", 'a'));
+        assertEquals("Jane Austen.", first.getSubfield("245", 'c'));
+        assertNull(first.getSubfield("245", 'b'));
+        assertNull(first.getSubfield("650", 'a'));
+
+        MarcTextReader.Record second = reader.readRecord();
+        assertEquals(7, reader.getRecordLine());
+        assertEquals("Second title", second.getSubfield("245", 'a'));
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void continuationLinesAndEscapedDollarsAreJoined() throws IOException {
+        MarcTextReader reader = reader(
+            "=245  10$aThe $5 book {dollar}5 edition\n"
+                + " continued here$cAnon.\n"
+                + "=500  \\\\$aPrice {dollar}12.\n", 10000);
+        MarcTextReader.Record record = reader.readRecord();
+        assertEquals("The", record.getSubfield("245", 'a'));
+        assertEquals("Anon.", record.getSubfield("245", 'c'));
+        assertEquals("Price $12.", record.getSubfield("500", 'a'));
+        assertEquals("book $5 edition continued here", record.getSubfield("245", '5'));
+    }
+
+    @Test
+    void malformedRecordFailsAndTheNextOneIsStillRead() throws IOException {
+        MarcTextReader reader = reader(
+            "stray text\n=245  10$aSkipped\n\n"
+                + "=24\n\n"
+                + "=245  10$aKept\n", 10000);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("does not start with a field line"));
+        e = assertThrows(IllegalArgumentException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("Malformed field line"));
+        assertEquals("Kept", reader.readRecord().getSubfield("245", 'a'));
+        assertEquals(6, reader.getRecordLine());
+    }
+
+    @Test
+    void oversizedRecordFailsAndIsSkipped() throws IOException {
+        MarcTextReader reader = reader(
+            "=245  10$a" + "x".repeat(100) + "\n=500  \\\\$amore\n\n=245  10$aSmall\n", 50);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("longer than 50"));
+        assertEquals("Small", reader.readRecord().getSubfield("245", 'a'));
+    }
+
+    private static MarcTextReader reader(String input, int maxRecordChars) {
+        return new MarcTextReader(new BufferedReader(new StringReader(input)), maxRecordChars);
+    }
+}
@@ -0,0 +1,107 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixSuggesterTest {
+
+    @Test
+    void randomCompletionsMatchBruteForce() {
+        Random random = new Random(5);
+        for (int round = 0; round < 30; round++) {
+            int k = 1 + random.nextInt(8);
+            // A small alphabet gives long shared prefixes and many split nodes
+            Map<String, Long> weights = new LinkedHashMap<>();
+            for (int i = random.nextInt(400); i >= 0; i--) {
+                weights.put(randomKey(random), (long) random.nextInt(20));
+            }
+            PrefixSuggester.Builder<String> builder = PrefixSuggester.builder(k);
+            weights.forEach((key, weight) -> builder.add(key, weight, key));
+            PrefixSuggester<String> suggester = builder.build();
+            assertEquals(weights.size(), suggester.size());
+
+            for (int q = 0; q < 200; q++) {
+                String prefix = randomKey(random).substring(0, random.nextInt(4));
+                List<String> expected = weights.keySet().stream()
+                    .filter(key -> key.startsWith(prefix))
+                    .sorted((a, b) -> !weights.get(a).equals(weights.get(b))
+                        ? Long.compare(weights.get(b), weights.get(a)) : a.compareTo(b))
+                    .limit(k)
+                    .collect(Collectors.toList());
+
+                char[] folded = prefix.toCharArray();
+                assertEquals(expected, suggester.completions(folded, folded.length), "prefix \"" + prefix + "\"");
+
+                int[] ids = new int[k];
+                int found = suggester.complete(folded, folded.length, ids);
+                List<String> viaIds = new ArrayList<>();
+                for (int i = 0; i < found; i++) {
+                    viaIds.add(suggester.getPayload(ids[i]));
+                    assertEquals((long) weights.get(suggester.getPayload(ids[i])), suggester.getWeight(ids[i]));
+                }
+                assertEquals(expected, viaIds);
+            }
+        }
+    }
+
+    @Test
+    void repeatedLookupsShareOneUnmodifiableList() {
+        PrefixSuggester<String> suggester = PrefixSuggester.<String>builder(3)
+            .add("harry potter", 10, "hp")
+            .add("hamlet", 5, "ham")
+            .build();
+        char[] prefix = "ha".toCharArray();
+        List<String> first = suggester.completions(prefix, 2);
+        assertEquals(Arrays.asList("hp", "ham"), first);
+        assertSame(first, suggester.completions(prefix, 2));
+        assertThrows(UnsupportedOperationException.class, () -> first.add("x"));
+        assertTrue(suggester.completions("zz".toCharArray(), 2).isEmpty());
+    }
+
+    @Test
+    void emptySuggesterCompletesNothing() {
+        PrefixSuggester<String> suggester = PrefixSuggester.<String>builder(5).add("  ", 1, "blank").build();
+        assertEquals(0, suggester.size());
+        assertTrue(suggester.completions("a".toCharArray(), 1).isEmpty());
+        assertEquals(0, suggester.complete("a".toCharArray(), 1, new int[5]));
+    }
+
+    @Test
+    void normalizeFoldsAccentsCaseAndSeparators() {
+        assertEquals("les miserables", PrefixSuggester.normalize("  Les Misérables!"));
+        assertEquals("emile zola 2", PrefixSuggester.normalize("ÉMILE -- Zola, #2"));
+        assertEquals("", PrefixSuggester.normalize(null));
+
+        char[] buffer = new char[64];
+        int length = PrefixSuggester.normalize("Harry ", buffer, true);
+        assertEquals("harry ", new String(buffer, 0, length));
+        length = PrefixSuggester.normalize("Harry ", buffer, false);
+        assertEquals("harry", new String(buffer, 0, length));
+
+        char[] small = new char[4];
+        assertEquals(4, PrefixSuggester.normalize("ab cd", small, true));
+        assertEquals("ab c", new String(small));
+    }
+
+    @Test
+    void builderRejectsNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> PrefixSuggester.builder(0));
+    }
+
+    private static String randomKey(Random random) {
+        char[] key = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = "abc ".charAt(random.nextInt(i == 0 || i == key.length - 1 || key[i - 1] == ' ' ? 3 : 4));
+        }
+        return new String(key);
+    }
+}
@@ -0,0 +1,124 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockTest {
+
+    @Test
+    void stripeCountRoundsUpToAPowerOfTwo() {
+        assertEquals(1, new StripedLock(1).size());
+        assertEquals(8, new StripedLock(5).size());
+        assertEquals(64, new StripedLock(64).size());
+        assertEquals(128, new StripedLock(65).size());
+    }
+
+    @Test
+    void sameKeyAlwaysGetsTheSameLock() {
+        StripedLock locks = new StripedLock(16);
+        for (int key = -1000; key < 1000; key++) {
+            assertSame(locks.get(key), locks.get(key));
+        }
+    }
+
+    @Test
+    void getAllReturnsDistinctLocksInOneGlobalOrder() {
+        StripedLock locks = new StripedLock(8);
+        List<Lock> everyStripe = locks.getAll(range(0, 1000));
+        assertEquals(8, everyStripe.size());
+        assertEquals(8, new HashSet<>(everyStripe).size());
+
+        Random random = new Random(3);
+        for (int round = 0; round < 1000; round++) {
+            List<Integer> keys = new ArrayList<>();
+            for (int i = random.nextInt(10); i >= 0; i--) {
+                keys.add(random.nextInt(100));
+            }
+            List<Lock> acquired = locks.getAll(keys);
+            assertEquals(new HashSet<>(acquired).size(), acquired.size(), "duplicate lock for " + keys);
+            for (int key : keys) {
+                assertTrue(acquired.contains(locks.get(key)));
+            }
+            // Any subset is taken in the same relative order as the full stripe list
+            int last = -1;
+            for (Lock lock : acquired) {
+                int position = everyStripe.indexOf(lock);
+                assertTrue(position > last, "out of order for " + keys);
+                last = position;
+            }
+        }
+    }
+
+    @Test
+    void overlappingKeySetsLockedThroughGetAllDoNotDeadlock() throws InterruptedException {
+        StripedLock locks = new StripedLock(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20000; i++) {
+                    List<Integer> keys = Arrays.asList(random.nextInt(4), random.nextInt(4), random.nextInt(4));
+                    List<Lock> acquired = locks.getAll(keys);
+                    acquired.forEach(Lock::lock);
+                    try {
+                        Thread.yield();
+                    } finally {
+                        acquired.forEach(Lock::unlock);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive(), "threads deadlocked");
+        }
+    }
+
+    @Test
+    void lockExcludesOtherThreadsForTheSameKey() throws InterruptedException {
+        StripedLock locks = new StripedLock(2);
+        int[] counter = {0};
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50000; i++) {
+                    Lock lock = locks.get(7);
+                    lock.lock();
+                    try {
+                        counter[0]++;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4 * 50000, counter[0]);
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> keys = new ArrayList<>();
+        for (int key = from; key < to; key++) {
+            keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,172 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final int MAX_SPAN = 1 << 24;
+
+    @Test
+    void randomScheduleCancelAndAdvanceMatchReference() {
+        Random random = new Random(1234);
+        TimingWheel wheel = new TimingWheel(1000);
+        Map<Integer, Timer> reference = new HashMap<>();
+        for (int step = 0; step < 200000; step++) {
+            int now = wheel.getCurrentTick();
+            int key = random.nextInt(2000);
+            int action = random.nextInt(100);
+            if (action < 60) {
+                int tick = now + randomDelay(random);
+                Timer timer = new Timer(key, tick, random.nextInt(), (byte) random.nextInt(4), Math.max(tick, now));
+                wheel.schedule(key, tick, timer.data, timer.tag);
+                reference.put(key, timer);
+            } else if (action < 80) {
+                assertEquals(reference.remove(key) != null, wheel.cancel(key), "cancel " + key);
+            } else {
+                // Mostly short steps, now and then a jump across many slots of the upper levels
+                int target = now + (random.nextInt(50) == 0 ? random.nextInt(1 << 20) : random.nextInt(100));
+                advanceAndCheck(wheel, reference, target);
+            }
+            assertEquals(reference.size(), wheel.size());
+        }
+        advanceAndCheck(wheel, reference, wheel.getCurrentTick() + 2 * MAX_SPAN);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleMovesTheTimerInsteadOfAddingOne() {
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(7, 500, 1, (byte) 0);
+        wheel.schedule(7, 10, 2, (byte) 1);
+        assertEquals(1, wheel.size());
+
+        List<Timer> fired = new ArrayList<>();
+        assertEquals(1, wheel.advanceTo(10, collect(fired)));
+        assertEquals(10, fired.get(0).tick);
+        assertEquals(2, fired.get(0).data);
+        assertEquals(0, wheel.advanceTo(1000, collect(fired)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(100);
+        wheel.schedule(1, 40, 0, (byte) 0);
+        List<Timer> fired = new ArrayList<>();
+        assertEquals(1, wheel.advanceTo(100, collect(fired)));
+        assertEquals(40, fired.get(0).tick);
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelFireOnTime() {
+        TimingWheel wheel = new TimingWheel(5);
+        int[] deadlines = {5 + MAX_SPAN - 1, 5 + MAX_SPAN, 5 + MAX_SPAN + 777, 5 + 2 * MAX_SPAN + 12345};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i], 0, (byte) 0);
+        }
+        for (int i = 0; i < deadlines.length; i++) {
+            List<Timer> fired = new ArrayList<>();
+            assertEquals(0, wheel.advanceTo(deadlines[i] - 1, collect(fired)), "early fire of " + deadlines[i]);
+            assertEquals(1, wheel.advanceTo(deadlines[i], collect(fired)));
+            assertEquals(i, fired.get(0).key);
+        }
+    }
+
+    @Test
+    void handlerMayScheduleAgain() {
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(1, 3, 0, (byte) 0);
+        List<Integer> firedAt = new ArrayList<>();
+        wheel.advanceTo(20, (key, tick, data, tag) -> {
+            firedAt.add(tick);
+            if (tick < 15) {
+                wheel.schedule(key, tick + 5, data, tag);
+            }
+        });
+        assertEquals(List.of(3, 8, 13, 18), firedAt);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void millionTimersStayWithinTheDocumentedFootprint() {
+        TimingWheel wheel = new TimingWheel(0);
+        Random random = new Random(99);
+        int timers = 1_000_000;
+        for (int key = 0; key < timers; key++) {
+            wheel.schedule(key, 1 + random.nextInt(1 << 20), key, (byte) 0);
+        }
+        long bytesPerTimer = wheel.getSizeInBytes() / timers;
+        assertTrue(bytesPerTimer >= 31 && bytesPerTimer <= 62, "bytes per timer: " + bytesPerTimer);
+        assertTrue(wheel.getSizeInBytes() < 100L * 1024 * 1024);
+    }
+
+    private static int randomDelay(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return -random.nextInt(50);
+            case 1:
+                return random.nextInt(64);
+            case 2:
+                return random.nextInt(1 << 12);
+            case 3:
+                return random.nextInt(1 << 20);
+            default:
+                return random.nextInt(MAX_SPAN) + random.nextInt(MAX_SPAN);
+        }
+    }
+
+    private static void advanceAndCheck(TimingWheel wheel, Map<Integer, Timer> reference, int target) {
+        List<Timer> fired = new ArrayList<>();
+        int count = wheel.advanceTo(target, collect(fired));
+        assertEquals(fired.size(), count);
+
+        int expected = 0;
+        for (Timer timer : new ArrayList<>(reference.values())) {
+            if (timer.dueTick <= target) {
+                expected++;
+            }
+        }
+        assertEquals(expected, count, "timers due by " + target);
+
+        int lastDue = Integer.MIN_VALUE;
+        for (Timer timer : fired) {
+            Timer scheduled = reference.remove(timer.key);
+            assertNotNull(scheduled, "unexpected timer " + timer.key);
+            assertEquals(scheduled.tick, timer.tick);
+            assertEquals(scheduled.data, timer.data);
+            assertEquals(scheduled.tag, timer.tag);
+            assertTrue(scheduled.dueTick >= lastDue, "fired out of order");
+            lastDue = scheduled.dueTick;
+        }
+        assertEquals(target + 1, wheel.getCurrentTick());
+    }
+
+    private static TimingWheel.Handler collect(List<Timer> fired) {
+        return (key, tick, data, tag) -> fired.add(new Timer(key, tick, data, tag, tick));
+    }
+
+    private static final class Timer {
+        final int key;
+        final int tick;
+        final int data;
+        final byte tag;
+        // The tick it fires on: deadlines already past when scheduled fire on the next tick processed
+        final int dueTick;
+
+        Timer(int key, int tick, int data, byte tag, int dueTick) {
+            this.key = key;
+            this.tick = tick;
+            this.data = data;
+            this.tag = tag;
+            this.dueTick = dueTick;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.StudentLibrary.Studentlibrary.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void idsFromOneThreadStrictlyIncreaseWithinAMillisecond() {
+        // Far more ids than milliseconds pass, so most share their millisecond with the previous one
+        UUID previous = UuidV7.generate();
+        for (int i = 0; i < 100000; i++) {
+            UUID next = UuidV7.generate();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                previous + " then " + next);
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void layoutIsVersion7WithTheCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        // A sequence that ran over carries into the next millisecond, so allow a little lead
+        long timestamp = UuidV7.timestampOf(id);
+        assertTrue(timestamp >= before && timestamp <= after + 1000, "timestamp " + timestamp);
+    }
+
+    @Test
+    void timestampOfOtherVersionsIsMinusOne() {
+        assertEquals(-1, UuidV7.timestampOf(UUID.randomUUID()));
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws InterruptedException {
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        Set<Long> stamps = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    UUID id = UuidV7.generate();
+                    seen.add(id);
+                    stamps.add(id.getMostSignificantBits());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8 * 20000, seen.size());
+        // The time-and-sequence half alone is unique within one JVM
+        assertEquals(8 * 20000, stamps.size());
+    }
+
+    @Test
+    void randomBitsDifferBetweenIds() {
+        Set<Long> low = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            low.add(UuidV7.generate().getLeastSignificantBits());
+        }
+        assertEquals(1000, low.size());
+    }
+}